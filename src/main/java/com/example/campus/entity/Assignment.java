@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "assignments")
+@Table(name = "assignments", indexes = {
+        // Student listing: enrolled subjects, walked in due-date order
+        @Index(name = "idx_assignments_subject_due", columnList = "subject, due_date, id"),
+        @Index(name = "idx_assignments_due", columnList = "due_date, id"),
+        @Index(name = "idx_assignments_created_by", columnList = "created_by")
+})
 public class Assignment {
 
     @Id
@@ -24,7 +29,7 @@ public class Assignment {
     // Track when created
     private LocalDateTime createdAt;
 
-    // Student submission details (nullable until submitted)
+    // Legacy single submission slot, no longer written; see AssignmentSubmission
     private Long studentId;
     private LocalDateTime submittedAt;
 
@@ -5,7 +5,14 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "assignment_submissions")
+@Table(name = "assignment_submissions", uniqueConstraints = {
+        // One row per student per assignment; resubmissions upsert into it
+        @UniqueConstraint(name = "uk_submissions_assignment_student", columnNames = {"assignment_id", "student_id"})
+}, indexes = {
+        @Index(name = "idx_submissions_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_submissions_submitted_at", columnList = "submitted_at"),
+        @Index(name = "idx_submissions_assignment_status", columnList = "assignment_id, status")
+})
 public class AssignmentSubmission {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +32,16 @@ public class AssignmentSubmission {
     @Column(name = "file_path")
     private String filePath;
 
+    // Set for uploaded files; filePath is then the content address in the file store
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "content_type")
+    private String contentType;
+
     @Column(name = "submitted_at")
     private LocalDateTime submittedAt;
 
@@ -44,6 +61,9 @@ public class AssignmentSubmission {
     @Column(name = "status")
     private SubmissionStatus status;
 
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     public enum SubmissionStatus {
         SUBMITTED, GRADED, LATE
     }
@@ -56,6 +76,12 @@ public class AssignmentSubmission {
         if (status == null) {
             status = SubmissionStatus.SUBMITTED;
         }
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 
     // Getters and Setters
@@ -74,6 +100,15 @@ public class AssignmentSubmission {
     public String getFilePath() { return filePath; }
     public void setFilePath(String filePath) { this.filePath = filePath; }
 
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public Long getFileSize() { return fileSize; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
     public LocalDateTime getSubmittedAt() { return submittedAt; }
     public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
 
@@ -91,4 +126,7 @@ public class AssignmentSubmission {
 
     public SubmissionStatus getStatus() { return status; }
     public void setStatus(SubmissionStatus status) { this.status = status; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 }
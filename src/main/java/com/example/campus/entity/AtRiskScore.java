@@ -0,0 +1,84 @@
+package com.example.campus.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Result row of the weekly at-risk scoring run. The table is replaced as a
+ * whole by each run.
+ */
+@Entity
+@Table(name = "at_risk_scores", indexes = {
+        @Index(name = "idx_at_risk_scores_rank", columnList = "risk_rank"),
+        @Index(name = "idx_at_risk_scores_student", columnList = "student_id")
+})
+public class AtRiskScore {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "risk_rank", nullable = false)
+    private Integer rank;
+
+    @Column(name = "score", nullable = false)
+    private Double score;
+
+    @Column(name = "attendance_rate")
+    private Double attendanceRate;
+
+    @Column(name = "average_mark_pct")
+    private Double averageMarkPercentage;
+
+    // Recent average minus older average, in percentage points
+    @Column(name = "mark_trend")
+    private Double markTrend;
+
+    @Column(name = "overdue_fees")
+    private Integer overdueFees;
+
+    @Column(name = "overdue_amount")
+    private Double overdueAmount;
+
+    @Column(name = "missed_assignments")
+    private Integer missedAssignments;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public Integer getRank() { return rank; }
+    public void setRank(Integer rank) { this.rank = rank; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+
+    public Double getAttendanceRate() { return attendanceRate; }
+    public void setAttendanceRate(Double attendanceRate) { this.attendanceRate = attendanceRate; }
+
+    public Double getAverageMarkPercentage() { return averageMarkPercentage; }
+    public void setAverageMarkPercentage(Double averageMarkPercentage) { this.averageMarkPercentage = averageMarkPercentage; }
+
+    public Double getMarkTrend() { return markTrend; }
+    public void setMarkTrend(Double markTrend) { this.markTrend = markTrend; }
+
+    public Integer getOverdueFees() { return overdueFees; }
+    public void setOverdueFees(Integer overdueFees) { this.overdueFees = overdueFees; }
+
+    public Double getOverdueAmount() { return overdueAmount; }
+    public void setOverdueAmount(Double overdueAmount) { this.overdueAmount = overdueAmount; }
+
+    public Integer getMissedAssignments() { return missedAssignments; }
+    public void setMissedAssignments(Integer missedAssignments) { this.missedAssignments = missedAssignments; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
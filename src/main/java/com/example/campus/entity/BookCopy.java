@@ -0,0 +1,56 @@
+package com.example.campus.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One physical copy of a {@link BookTitle}. A copy is claimed for an issue by
+ * flipping it from AVAILABLE to ISSUED with a conditional UPDATE.
+ */
+@Entity
+@Table(name = "book_copies", indexes = {
+        @Index(name = "idx_book_copies_title_status", columnList = "book_title_id, status")
+})
+public class BookCopy {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "book_title_id", nullable = false)
+    private Long bookTitleId;
+
+    @Column(name = "status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private CopyStatus status = CopyStatus.AVAILABLE;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public enum CopyStatus {
+        AVAILABLE, ISSUED
+    }
+
+    public BookCopy() {}
+
+    public BookCopy(Long bookTitleId) {
+        this.bookTitleId = bookTitleId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getBookTitleId() { return bookTitleId; }
+    public void setBookTitleId(Long bookTitleId) { this.bookTitleId = bookTitleId; }
+
+    public CopyStatus getStatus() { return status; }
+    public void setStatus(CopyStatus status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
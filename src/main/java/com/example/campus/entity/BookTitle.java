@@ -0,0 +1,87 @@
+package com.example.campus.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import java.time.LocalDateTime;
+
+/**
+ * A catalogue entry: one title/edition, identified by ISBN, with the number
+ * of {@link BookCopy} rows held and how many of them are on the shelf.
+ * availableCopies is only changed by conditional UPDATEs in LibraryService.
+ */
+@Entity
+@Table(name = "book_titles",
+        uniqueConstraints = @UniqueConstraint(name = "uk_book_titles_isbn", columnNames = "isbn"))
+public class BookTitle {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @NotBlank
+    @Column(name = "author", nullable = false)
+    private String author;
+
+    @NotBlank
+    @Column(name = "isbn", nullable = false, length = 20)
+    private String isbn;
+
+    @Column(name = "total_copies", nullable = false)
+    private Integer totalCopies = 0;
+
+    @Column(name = "available_copies", nullable = false)
+    private Integer availableCopies = 0;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public BookTitle() {}
+
+    public BookTitle(String title, String author, String isbn) {
+        this.title = title;
+        this.author = author;
+        this.isbn = isbn;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getAuthor() { return author; }
+    public void setAuthor(String author) { this.author = author; }
+
+    public String getIsbn() { return isbn; }
+    public void setIsbn(String isbn) { this.isbn = isbn; }
+
+    public Integer getTotalCopies() { return totalCopies; }
+    public void setTotalCopies(Integer totalCopies) { this.totalCopies = totalCopies; }
+
+    public Integer getAvailableCopies() { return availableCopies; }
+    public void setAvailableCopies(Integer availableCopies) { this.availableCopies = availableCopies; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
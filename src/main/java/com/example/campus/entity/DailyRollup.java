@@ -0,0 +1,102 @@
+package com.example.campus.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One pre-aggregated bucket: all rows of a source table that fall on a given
+ * day, grouped by department, subject and a source specific dimension
+ * (attendance status, exam type, fee status, ...).
+ */
+@Entity
+@Table(name = "daily_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_rollups_bucket",
+                columnNames = {"source", "day", "department", "subject", "dimension"}),
+        indexes = @Index(name = "idx_daily_rollups_source_day", columnList = "source, day"))
+public class DailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source", nullable = false, length = 20)
+    private Source source;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "department", nullable = false, length = 100)
+    private String department;
+
+    @Column(name = "subject", nullable = false, length = 100)
+    private String subject;
+
+    @Column(name = "dimension", nullable = false, length = 40)
+    private String dimension;
+
+    // Number of raw rows in the bucket
+    @Column(name = "row_count", nullable = false)
+    private Long rowCount;
+
+    // Sum of the measured value (marks obtained, fee amount, ...), 0 when the source has none
+    @Column(name = "value_sum", nullable = false)
+    private Double valueSum;
+
+    // Sum of the maximum possible value, used for percentages
+    @Column(name = "max_sum", nullable = false)
+    private Double maxSum;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+
+    public enum Source {
+        ATTENDANCE, MARK, FEE, FEEDBACK, SUBMISSION
+    }
+
+    public DailyRollup() {}
+
+    public DailyRollup(Source source, LocalDate day, String department, String subject, String dimension,
+                       Long rowCount, Double valueSum, Double maxSum) {
+        this.source = source;
+        this.day = day;
+        this.department = department;
+        this.subject = subject;
+        this.dimension = dimension;
+        this.rowCount = rowCount;
+        this.valueSum = valueSum;
+        this.maxSum = maxSum;
+        this.computedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Source getSource() { return source; }
+    public void setSource(Source source) { this.source = source; }
+
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public String getDimension() { return dimension; }
+    public void setDimension(String dimension) { this.dimension = dimension; }
+
+    public Long getRowCount() { return rowCount; }
+    public void setRowCount(Long rowCount) { this.rowCount = rowCount; }
+
+    public Double getValueSum() { return valueSum; }
+    public void setValueSum(Double valueSum) { this.valueSum = valueSum; }
+
+    public Double getMaxSum() { return maxSum; }
+    public void setMaxSum(Double maxSum) { this.maxSum = maxSum; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
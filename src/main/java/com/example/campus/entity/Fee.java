@@ -7,7 +7,16 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "fees")
+@Table(name = "fees",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_fees_schedule_student", columnNames = {"schedule_id", "student_id"}),
+                @UniqueConstraint(name = "uk_fees_transaction_id", columnNames = "transaction_id")
+        },
+        indexes = {
+        @Index(name = "idx_fees_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_fees_created_at", columnList = "created_at"),
+        @Index(name = "idx_fees_status_due_date", columnList = "status, due_date, id")
+})
 public class Fee {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -44,6 +53,15 @@ public class Fee {
     @Column(name = "status")
     private PaymentStatus status;
 
+    // Set when the fee was raised by a FeeSchedule; one fee per schedule and student
+    @Column(name = "schedule_id")
+    private Long scheduleId;
+
+    // Optimistic lock: concurrent read-modify-write on the same fee fails instead of overwriting
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version = 0L;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -100,6 +118,12 @@ public class Fee {
     public PaymentStatus getStatus() { return status; }
     public void setStatus(PaymentStatus status) { this.status = status; }
 
+    public Long getScheduleId() { return scheduleId; }
+    public void setScheduleId(Long scheduleId) { this.scheduleId = scheduleId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,88 @@
+package com.example.campus.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Template for billing a whole cohort: applying it raises one {@link Fee} for
+ * every student in the department/semester (null means "any").
+ */
+@Entity
+@Table(name = "fee_schedules")
+public class FeeSchedule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "department")
+    private String department;
+
+    @Column(name = "semester")
+    private String semester;
+
+    @NotNull
+    @Column(name = "fee_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Fee.FeeType feeType;
+
+    @NotNull
+    @DecimalMin("0.0")
+    @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @NotNull
+    @Column(name = "due_date", nullable = false)
+    private LocalDateTime dueDate;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_applied_at")
+    private LocalDateTime lastAppliedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public String getSemester() { return semester; }
+    public void setSemester(String semester) { this.semester = semester; }
+
+    public Fee.FeeType getFeeType() { return feeType; }
+    public void setFeeType(Fee.FeeType feeType) { this.feeType = feeType; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+    public void setDueDate(LocalDateTime dueDate) { this.dueDate = dueDate; }
+
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getLastAppliedAt() { return lastAppliedAt; }
+    public void setLastAppliedAt(LocalDateTime lastAppliedAt) { this.lastAppliedAt = lastAppliedAt; }
+}
@@ -6,7 +6,10 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "feedback")
+@Table(name = "feedback", indexes = {
+        @Index(name = "idx_feedback_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_feedback_created_at", columnList = "created_at")
+})
 public class Feedback {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,91 @@
+package com.example.campus.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a resolved or closed {@link Feedback} moved out of the hot
+ * table by the archival job. Same columns and ids as the original, plus
+ * archivedAt.
+ */
+@Entity
+@Table(name = "feedback_archive", indexes = {
+        @Index(name = "idx_feedback_archive_student", columnList = "student_id"),
+        @Index(name = "idx_feedback_archive_created_at", columnList = "created_at")
+})
+public class FeedbackArchive {
+    @Id
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "message", columnDefinition = "TEXT", nullable = false)
+    private String message;
+
+    @Column(name = "category", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Feedback.Category category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private Feedback.Status status;
+
+    @Column(name = "admin_response", columnDefinition = "TEXT")
+    private String adminResponse;
+
+    @Column(name = "responded_by")
+    private String respondedBy;
+
+    @Column(name = "responded_at")
+    private LocalDateTime respondedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Feedback.Category getCategory() { return category; }
+    public void setCategory(Feedback.Category category) { this.category = category; }
+
+    public Feedback.Status getStatus() { return status; }
+    public void setStatus(Feedback.Status status) { this.status = status; }
+
+    public String getAdminResponse() { return adminResponse; }
+    public void setAdminResponse(String adminResponse) { this.adminResponse = adminResponse; }
+
+    public String getRespondedBy() { return respondedBy; }
+    public void setRespondedBy(String respondedBy) { this.respondedBy = respondedBy; }
+
+    public LocalDateTime getRespondedAt() { return respondedAt; }
+    public void setRespondedAt(LocalDateTime respondedAt) { this.respondedAt = respondedAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+}
@@ -9,6 +9,7 @@ import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "library_issues")
@@ -28,15 +29,25 @@ public class Library {
     @NotBlank
     private String author;
 
-    @Column(unique = true, nullable = false)
+    // Not unique: a title can be out on loan to several students, one copy each
+    @Column(nullable = false)
     private String isbn;
 
+    // Catalogue title and copy this issue holds; null on issues recorded before the catalogue existed
+    @Column(name = "book_title_id")
+    private Long bookTitleId;
+
+    @Column(name = "copy_id")
+    private Long copyId;
+
     @NotNull
     @FutureOrPresent // ✅ due date cannot be before today
     private LocalDate dueDate;
 
     private LocalDate issuedAt = LocalDate.now();
 
+    private LocalDateTime returnedAt;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -58,4 +69,13 @@ public class Library {
 
     public LocalDate getIssuedAt() { return issuedAt; }
     public void setIssuedAt(LocalDate issuedAt) { this.issuedAt = issuedAt; }
+
+    public Long getBookTitleId() { return bookTitleId; }
+    public void setBookTitleId(Long bookTitleId) { this.bookTitleId = bookTitleId; }
+
+    public Long getCopyId() { return copyId; }
+    public void setCopyId(Long copyId) { this.copyId = copyId; }
+
+    public LocalDateTime getReturnedAt() { return returnedAt; }
+    public void setReturnedAt(LocalDateTime returnedAt) { this.returnedAt = returnedAt; }
 }
@@ -7,7 +7,13 @@ import jakarta.validation.constraints.Max;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "marks")
+@Table(name = "marks", uniqueConstraints = {
+        // One mirrored ASSIGNMENT mark per graded submission; regrading updates it
+        @UniqueConstraint(name = "uk_marks_assignment_student", columnNames = {"assignment_id", "student_id"})
+}, indexes = {
+        @Index(name = "idx_marks_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_marks_created_at", columnList = "created_at")
+})
 public class Mark {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -47,6 +53,10 @@ public class Mark {
     @Column(name = "entered_by")
     private String enteredBy;
 
+    // Set on marks mirrored from assignment grading
+    @Column(name = "assignment_id")
+    private Long assignmentId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -72,6 +82,9 @@ public class Mark {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getAssignmentId() { return assignmentId; }
+    public void setAssignmentId(Long assignmentId) { this.assignmentId = assignmentId; }
+
     public Long getStudentId() { return studentId; }
     public void setStudentId(Long studentId) { this.studentId = studentId; }
 
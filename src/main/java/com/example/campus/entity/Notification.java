@@ -6,7 +6,12 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Feed pages: newest first per role, with personal notifications kept apart by target_user_id
+        @Index(name = "idx_notifications_feed", columnList = "target_role, target_user_id, created_at, id"),
+        // Archival picks the oldest rows first
+        @Index(name = "idx_notifications_created_at", columnList = "created_at, id")
+})
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,6 +36,7 @@ public class Notification {
     @Column(name = "target_user_id")
     private Long targetUserId;
 
+    // Shared by everyone the notification targets; per-user state is in NotificationReadMark / NotificationRead
     @Column(name = "is_read")
     private Boolean isRead = false;
 
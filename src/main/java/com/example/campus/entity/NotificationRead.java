@@ -0,0 +1,52 @@
+package com.example.campus.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A notification read out of order, i.e. above the user's
+ * {@link NotificationReadMark}. Rows are removed once the mark passes them.
+ */
+@Entity
+@Table(name = "notification_reads",
+        uniqueConstraints = @UniqueConstraint(name = "uk_notification_reads_user_notification", columnNames = {"user_id", "notification_id"}),
+        indexes = @Index(name = "idx_notification_reads_notification", columnList = "notification_id"))
+public class NotificationRead {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+
+    public NotificationRead() {}
+
+    public NotificationRead(Long userId, Long notificationId) {
+        this.userId = userId;
+        this.notificationId = notificationId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        readAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getNotificationId() { return notificationId; }
+    public void setNotificationId(Long notificationId) { this.notificationId = notificationId; }
+
+    public LocalDateTime getReadAt() { return readAt; }
+    public void setReadAt(LocalDateTime readAt) { this.readAt = readAt; }
+}
@@ -0,0 +1,46 @@
+package com.example.campus.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Per-user read high-water mark: every notification visible to the user with
+ * an id up to readUpTo counts as read. Notifications read individually above
+ * the mark are kept as {@link NotificationRead} rows.
+ */
+@Entity
+@Table(name = "notification_read_marks")
+public class NotificationReadMark {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "read_up_to", nullable = false)
+    private Long readUpTo = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public NotificationReadMark() {}
+
+    public NotificationReadMark(Long userId, Long readUpTo) {
+        this.userId = userId;
+        this.readUpTo = readUpTo;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getReadUpTo() { return readUpTo; }
+    public void setReadUpTo(Long readUpTo) { this.readUpTo = readUpTo; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
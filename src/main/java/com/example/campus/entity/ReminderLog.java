@@ -0,0 +1,67 @@
+package com.example.campus.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One reminder that has been sent: for an assignment, or for a single fee,
+ * at a given offset before a given due date. Moving the due date makes its
+ * reminders due again.
+ */
+@Entity
+@Table(name = "reminder_log",
+        uniqueConstraints = @UniqueConstraint(name = "uk_reminder_log_source_offset_due",
+                columnNames = {"kind", "source_id", "offset_minutes", "due_date"}))
+public class ReminderLog {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "kind", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Kind kind;
+
+    @Column(name = "source_id", nullable = false)
+    private Long sourceId;
+
+    @Column(name = "offset_minutes", nullable = false)
+    private Long offsetMinutes;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDateTime dueDate;
+
+    @Column(name = "fired_at", nullable = false)
+    private LocalDateTime firedAt;
+
+    public enum Kind {
+        ASSIGNMENT, FEE
+    }
+
+    public ReminderLog() {}
+
+    @PrePersist
+    protected void onCreate() {
+        if (firedAt == null) {
+            firedAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+
+    public Long getSourceId() { return sourceId; }
+    public void setSourceId(Long sourceId) { this.sourceId = sourceId; }
+
+    public Long getOffsetMinutes() { return offsetMinutes; }
+    public void setOffsetMinutes(Long offsetMinutes) { this.offsetMinutes = offsetMinutes; }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+    public void setDueDate(LocalDateTime dueDate) { this.dueDate = dueDate; }
+
+    public LocalDateTime getFiredAt() { return firedAt; }
+    public void setFiredAt(LocalDateTime firedAt) { this.firedAt = firedAt; }
+}
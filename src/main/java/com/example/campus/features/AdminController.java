@@ -2,21 +2,41 @@ package com.example.campus.features;
 
 import com.example.campus.entity.*;
 import com.example.campus.repository.*;
+import com.example.campus.service.AdminStatsService;
+import com.example.campus.service.ArchivalService;
+import com.example.campus.service.ArchiveHistoryService;
+import com.example.campus.service.AtRiskService;
+import com.example.campus.service.FeeLedgerService;
+import com.example.campus.service.FeeReconciliationService;
+import com.example.campus.service.FeeScheduleService;
+import com.example.campus.service.LibraryService;
+import com.example.campus.service.NotificationService;
+import com.example.campus.service.OverdueFeeSweeper;
+import com.example.campus.service.PaymentPostingService;
+import com.example.campus.service.ReminderService;
+import com.example.campus.service.RollupEtlService;
+import com.example.campus.service.SearchIndexService;
 import com.example.campus.user.User;
 import com.example.campus.user.UserRepository;
 import com.example.campus.user.Role;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.HttpStatus;
 
 import com.example.campus.entity.Library;
-import com.example.campus.repository.LibraryRepository;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.time.LocalDate;
@@ -54,10 +74,58 @@ public class AdminController {
 
 
     @Autowired
-    private LibraryRepository libraryRepository;
+    private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private RollupEtlService rollupEtlService;
+
+    @Autowired
+    private AtRiskService atRiskService;
+
+    @Autowired
+    private AtRiskScoreRepository atRiskScoreRepository;
+
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+
+    @Autowired
+    private FeeScheduleRepository feeScheduleRepository;
+
+    @Autowired
+    private FeeScheduleService feeScheduleService;
+
+    @Autowired
+    private FeeReconciliationService feeReconciliationService;
+
+    @Autowired
+    private PaymentPostingService paymentPostingService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private OverdueFeeSweeper overdueFeeSweeper;
+
+    @Autowired
+    private ArchivalService archivalService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private BookTitleRepository bookTitleRepository;
+
+    @Autowired
+    private ArchiveHistoryService archiveHistoryService;
 
 
 
@@ -66,21 +134,14 @@ public class AdminController {
     public ResponseEntity<?> dashboard(@AuthenticationPrincipal UserDetails userDetails) {
         try {
             // System statistics
-            long totalStudents = userRepository.findAll().stream().filter(u -> u.getRole() == Role.STUDENT).count();
-            long totalFaculty = userRepository.findAll().stream().filter(u -> u.getRole() == Role.FACULTY).count();
-            long totalAssignments = assignmentRepository.count();
-            long pendingFeedback = feedbackRepository.findPendingFeedback().size();
-            
+            long totalStudents = adminStatsService.countUsers(Role.STUDENT);
+            long totalFaculty = adminStatsService.countUsers(Role.FACULTY);
+            long totalAssignments = adminStatsService.countAssignments();
+            long pendingFeedback = adminStatsService.countPendingFeedback();
+
             // Fee statistics
-            BigDecimal totalFeesCollected = feeRepository.findAll().stream()
-                .filter(f -> f.getStatus() == Fee.PaymentStatus.PAID)
-                .map(Fee::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            BigDecimal pendingFees = feeRepository.findAll().stream()
-                .filter(f -> f.getStatus() == Fee.PaymentStatus.PENDING)
-                .map(Fee::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal totalFeesCollected = adminStatsService.sumFees(Fee.PaymentStatus.PAID);
+            BigDecimal pendingFees = adminStatsService.sumFees(Fee.PaymentStatus.PENDING);
 
             Map<String, Object> dashboard = new HashMap<>();
             dashboard.put("totalStudents", totalStudents);
@@ -89,8 +150,9 @@ public class AdminController {
             dashboard.put("pendingFeedback", pendingFeedback);
             dashboard.put("totalFeesCollected", totalFeesCollected);
             dashboard.put("pendingFees", pendingFees);
+            dashboard.put("overdueFees", adminStatsService.sumFees(Fee.PaymentStatus.OVERDUE));
             dashboard.put("libraryBooks", 120); // Mock data
-            dashboard.put("activeNotifications", notificationRepository.count());
+            dashboard.put("activeNotifications", adminStatsService.countNotifications());
 
             return ResponseEntity.ok(dashboard);
         } catch (Exception e) {
@@ -142,6 +204,7 @@ public class AdminController {
 
 
             userRepository.save(user);
+            adminStatsService.invalidate();
             return ResponseEntity.ok(Map.of("message", "User created successfully"));
         } catch (Exception e) {
             e.printStackTrace();
@@ -172,35 +235,78 @@ public class AdminController {
             return ResponseEntity.badRequest().body("Invalid student ID");
         }
 
-        if (libraryRepository.existsByIsbn(request.getIsbn())) {
-            return ResponseEntity.badRequest().body("ISBN already issued");
-        }
-
         if (request.getDueDate() == null || request.getDueDate().isBefore(LocalDate.now())) {
             return ResponseEntity.badRequest().body("Due date must be today or later");
         }
 
-        Library libraryRecord = new Library();
-        libraryRecord.setStudent(student);
-        libraryRecord.setTitle(request.getTitle());
-        libraryRecord.setAuthor(request.getAuthor());
-        libraryRecord.setIsbn(request.getIsbn());
-        libraryRecord.setDueDate(request.getDueDate());  // ✅ just assign it
-        libraryRecord.setIssuedAt(LocalDate.now());
+        LibraryService.IssueResult result = libraryService.issue(student, request.getIsbn(), request.getTitle(),
+                request.getAuthor(), request.getDueDate());
+        if (result.outcome() == LibraryService.Outcome.NOT_FOUND) {
+            return ResponseEntity.badRequest().body("ISBN not in the catalogue; title and author are needed to add it");
+        }
+        if (result.outcome() == LibraryService.Outcome.UNAVAILABLE) {
+            return ResponseEntity.status(409).body("No copies of this title are available");
+        }
+        return ResponseEntity.ok(result.issue());
+    }
 
-        return ResponseEntity.ok(libraryRepository.save(libraryRecord));
+    @PostMapping("/library/issues/{id}/return")
+    public ResponseEntity<?> returnBook(@PathVariable Long id) {
+        LibraryService.Outcome outcome = libraryService.returnIssue(id);
+        if (outcome == LibraryService.Outcome.NOT_FOUND) {
+            return ResponseEntity.status(404).body(Map.of("error", "Issued book not found"));
+        }
+        if (outcome == LibraryService.Outcome.ALREADY_RETURNED) {
+            return ResponseEntity.status(409).body(Map.of("error", "Book already returned"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Book returned successfully"));
     }
 
-    // Delete issued book
+    // Delete issued book; a copy still out goes back on the shelf
     @DeleteMapping("/library/{id}")
     public ResponseEntity<?> deleteIssue(@PathVariable Long id) {
-        if (!libraryRepository.existsById(id)) {
+        if (!libraryService.deleteIssue(id)) {
             return ResponseEntity.badRequest().body("Issued book not found");
         }
-        libraryRepository.deleteById(id);
         return ResponseEntity.ok("Deleted successfully");
     }
 
+    // Body: {"title": "...", "author": "...", "isbn": "...", "copies": 5}; adds copies to an existing ISBN
+    @PostMapping("/library/titles")
+    public ResponseEntity<?> addBookCopies(@RequestBody Map<String, Object> request) {
+        try {
+            Object isbn = request.get("isbn");
+            if (isbn == null || isbn.toString().isBlank()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "isbn is required"));
+            }
+            int copies = request.get("copies") != null ? Integer.parseInt(request.get("copies").toString()) : 1;
+            if (copies < 0 || copies > 1000) {
+                return ResponseEntity.badRequest().body(Map.of("error", "copies must be between 0 and 1000"));
+            }
+            Object title = request.get("title");
+            Object author = request.get("author");
+            if (bookTitleRepository.findByIsbn(isbn.toString().trim()).isEmpty()
+                    && (title == null || title.toString().isBlank() || author == null || author.toString().isBlank())) {
+                return ResponseEntity.badRequest().body(Map.of("error", "title and author are required for a new ISBN"));
+            }
+            return ResponseEntity.ok(libraryService.addCopies(title != null ? title.toString().trim() : null,
+                    author != null ? author.toString().trim() : null, isbn.toString().trim(), copies));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/library/titles")
+    public ResponseEntity<?> getBookTitles(@RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(bookTitleRepository.findAll(
+                    PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 200), Sort.by("title", "id"))).getContent());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/users/{userId}")
     public ResponseEntity<?> deleteUser(@PathVariable Long userId, @AuthenticationPrincipal UserDetails userDetails) {
         try {
@@ -210,6 +316,7 @@ public class AdminController {
             }
 
             userRepository.delete(user);
+            adminStatsService.invalidate();
             return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -258,10 +365,18 @@ public class AdminController {
     }
 
     @GetMapping("/feedback")
-    public ResponseEntity<?> getAllFeedback(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getAllFeedback(@RequestParam(defaultValue = "false") boolean includeArchived,
+                                            @RequestParam(required = false) String before,
+                                            @RequestParam(defaultValue = "50") int limit,
+                                            @AuthenticationPrincipal UserDetails userDetails) {
         try {
-            List<Feedback> allFeedback = feedbackRepository.findAll();
-            return ResponseEntity.ok(allFeedback);
+            if (includeArchived) {
+                // Live and archived tickets in one keyset-paged stream; the next page starts at X-Next-Cursor
+                return historyResponse(archiveHistoryService.feedback(before, limit));
+            }
+            return ResponseEntity.ok(feedbackRepository.findAll());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
@@ -281,6 +396,7 @@ public class AdminController {
             feedback.setStatus(Feedback.Status.RESOLVED);
 
             feedbackRepository.save(feedback);
+            searchIndexService.index(feedback);
             return ResponseEntity.ok(Map.of("message", "Response added successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -297,7 +413,7 @@ public class AdminController {
             notification.setCreatedBy(userDetails.getUsername());
             notification.setTargetRole(Notification.TargetRole.valueOf(notificationData.get("targetRole").toString()));
 
-            notificationRepository.save(notification);
+            notificationService.create(notification);
             return ResponseEntity.ok(Map.of("message", "Notification created successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -305,10 +421,17 @@ public class AdminController {
     }
 
     @GetMapping("/notifications")
-    public ResponseEntity<?> getAllNotifications(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getAllNotifications(@RequestParam(defaultValue = "false") boolean includeArchived,
+                                                 @RequestParam(required = false) String before,
+                                                 @RequestParam(defaultValue = "50") int limit,
+                                                 @AuthenticationPrincipal UserDetails userDetails) {
         try {
-            List<Notification> notifications = notificationRepository.findAll();
-            return ResponseEntity.ok(notifications);
+            if (includeArchived) {
+                return historyResponse(archiveHistoryService.notifications(before, limit));
+            }
+            return ResponseEntity.ok(notificationRepository.findAll());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
@@ -321,22 +444,24 @@ public class AdminController {
             @PathVariable Long id,
             @RequestBody Notification request,
             @AuthenticationPrincipal UserDetails userDetails) {
-        return notificationRepository.findById(id).map(notification -> {
+        Notification updated = notificationService.update(id, notification -> {
             notification.setTitle(request.getTitle());
             notification.setMessage(request.getMessage());
             notification.setTargetRole(request.getTargetRole());
             notification.setCreatedBy(userDetails.getUsername());
-            notificationRepository.save(notification);
-            return ResponseEntity.ok(Map.of("message", "Notification updated successfully"));
-        }).orElse(ResponseEntity.status(404).body(Map.of("error", "Notification not found")));
+        });
+        if (updated == null) {
+            return ResponseEntity.status(404).body(Map.of("error", "Notification not found"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Notification updated successfully"));
     }
 
     @DeleteMapping("/notifications/{id}")
     public ResponseEntity<?> deleteNotification(@PathVariable Long id) {
-        return notificationRepository.findById(id).map(notification -> {
-            notificationRepository.delete(notification);
-            return ResponseEntity.ok(Map.of("message", "Notification deleted successfully"));
-        }).orElse(ResponseEntity.status(404).body(Map.of("error", "Notification not found")));
+        if (!notificationService.delete(id)) {
+            return ResponseEntity.status(404).body(Map.of("error", "Notification not found"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Notification deleted successfully"));
     }
 
 @PostMapping("/fees")
@@ -349,12 +474,201 @@ public class AdminController {
             fee.setDueDate(LocalDateTime.parse(feeData.get("dueDate").toString()));
 
             feeRepository.save(fee);
+            feeLedgerService.invalidate(fee.getStudentId());
+            adminStatsService.invalidate();
+            reminderService.onFeesCreated(fee.getDueDate());
             return ResponseEntity.ok(Map.of("message", "Fee created successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
+    @PostMapping("/fee-schedules")
+    public ResponseEntity<?> createFeeSchedule(@RequestBody Map<String, Object> scheduleData, @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            FeeSchedule schedule = new FeeSchedule();
+            schedule.setName(scheduleData.get("name").toString());
+            schedule.setFeeType(Fee.FeeType.valueOf(scheduleData.get("feeType").toString()));
+            schedule.setAmount(new BigDecimal(scheduleData.get("amount").toString()));
+            schedule.setDueDate(LocalDateTime.parse(scheduleData.get("dueDate").toString()));
+            if (scheduleData.get("department") != null) {
+                schedule.setDepartment(scheduleData.get("department").toString());
+            }
+            if (scheduleData.get("semester") != null) {
+                schedule.setSemester(scheduleData.get("semester").toString());
+            }
+            schedule.setCreatedBy(userDetails.getUsername());
+
+            return ResponseEntity.ok(feeScheduleRepository.save(schedule));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/fee-schedules")
+    public ResponseEntity<?> getFeeSchedules(@AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            return ResponseEntity.ok(feeScheduleRepository.findAll());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Bills every matching student; safe to re-run, students already billed are skipped
+    @PostMapping("/fee-schedules/{id}/apply")
+    public ResponseEntity<?> applyFeeSchedule(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            FeeSchedule schedule = feeScheduleRepository.findById(id).orElse(null);
+            if (schedule == null) {
+                return ResponseEntity.status(404).body(Map.of("error", "Fee schedule not found"));
+            }
+            String jobId = feeScheduleService.apply(schedule, userDetails.getUsername());
+            return ResponseEntity.accepted().body(Map.of("jobId", jobId, "status", "QUEUED"));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/fee-schedules/jobs/{jobId}")
+    public ResponseEntity<?> getFeeScheduleJob(@PathVariable String jobId, @AuthenticationPrincipal UserDetails userDetails) {
+        Map<String, Object> job = feeScheduleService.job(jobId);
+        if (job == null) {
+            return ResponseEntity.status(404).body(Map.of("error", "Job not found"));
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    @PostMapping("/fees/{feeId}/payments")
+    public ResponseEntity<?> postPayment(@PathVariable Long feeId, @RequestBody Map<String, Object> paymentData, @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            Object paidDate = paymentData.get("paidDate");
+            Object method = paymentData.get("paymentMethod");
+            PaymentPostingService.PaymentResult result = paymentPostingService.post(feeId,
+                    new BigDecimal(paymentData.get("amount").toString()),
+                    method != null ? method.toString() : null,
+                    paymentData.get("transactionId").toString(),
+                    paidDate != null ? LocalDateTime.parse(paidDate.toString()) : null);
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("outcome", result.outcome());
+            body.put("message", result.message());
+            body.put("fee", result.fee());
+            return switch (result.outcome()) {
+                case POSTED, ALREADY_POSTED -> ResponseEntity.ok(body);
+                case REJECTED -> ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+                case NOT_FOUND -> ResponseEntity.status(404).body(body);
+            };
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Bank statement CSV: transactionId, reference, amount[, date, method]
+    @PostMapping("/fees/reconciliation")
+    public ResponseEntity<?> reconcileFees(@RequestParam("file") MultipartFile file,
+                                           @RequestParam(defaultValue = "BANK_TRANSFER") String method,
+                                           @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            if (file.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Statement file is empty"));
+            }
+            return ResponseEntity.ok(feeReconciliationService.reconcile(file.getInputStream(), method));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/fees/reconciliation/{reportId}/exceptions")
+    public ResponseEntity<?> getReconciliationExceptions(@PathVariable String reportId, @AuthenticationPrincipal UserDetails userDetails) {
+        Path report = feeReconciliationService.report(reportId);
+        if (report == null) {
+            return ResponseEntity.status(404).body(Map.of("error", "Report not found"));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reconciliation-exceptions-" + reportId + ".csv\"")
+                .body(new FileSystemResource(report));
+    }
+
+    @GetMapping("/fees/overdue-sweeper")
+    public ResponseEntity<?> getOverdueSweeperStatus(@AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(overdueFeeSweeper.status());
+    }
+
+    @PostMapping("/fees/overdue-sweeper/run")
+    public ResponseEntity<?> runOverdueSweeper(@AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            Map<String, Object> report = overdueFeeSweeper.sweep();
+            if (report.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Overdue sweep already in progress"));
+            }
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Ranked full-text search over notifications, feedback and assignments, including archived rows
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(required = false) String type,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size,
+                                    @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            if (q.isBlank()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Query must not be empty"));
+            }
+            if (page < 0 || size < 1 || size > 100) {
+                return ResponseEntity.badRequest().body(Map.of("error", "page must be >= 0 and size between 1 and 100"));
+            }
+            SearchIndexService.Type searchType;
+            try {
+                searchType = type != null ? SearchIndexService.Type.valueOf(type.toUpperCase()) : null;
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Unknown type: " + type));
+            }
+            return ResponseEntity.ok(searchIndexService.search(q, searchType, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/search/index")
+    public ResponseEntity<?> getSearchIndexStatus(@AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(searchIndexService.status());
+    }
+
+    @PostMapping("/search/reindex")
+    public ResponseEntity<?> reindexSearch(@AuthenticationPrincipal UserDetails userDetails) {
+        if (!searchIndexService.rebuild()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Search index rebuild already in progress"));
+        }
+        return ResponseEntity.accepted().body(Map.of("message", "Search index rebuild started"));
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<?> getArchivalStatus(@AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(archivalService.status());
+    }
+
+    @PostMapping("/archive/run")
+    public ResponseEntity<?> runArchival(@AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            Map<String, Object> report = archivalService.run();
+            if (report.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Archival already in progress"));
+            }
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/analytics")
     public ResponseEntity<?> getAnalytics(@AuthenticationPrincipal UserDetails userDetails) {
         try {
@@ -382,14 +696,61 @@ public class AdminController {
             analytics.put("attendancePercentage", totalAttendanceRecords > 0 ? (presentCount * 100.0 / totalAttendanceRecords) : 0.0);
             analytics.put("averageMarks", Math.round(averageMarks * 100.0) / 100.0);
             analytics.put("totalFees", totalFees);
-            analytics.put("totalStudents", userRepository.findAll().stream().filter(u -> u.getRole() == Role.STUDENT).count());
-            analytics.put("totalFaculty", userRepository.findAll().stream().filter(u -> u.getRole() == Role.FACULTY).count());
+            analytics.put("totalStudents", adminStatsService.countUsers(Role.STUDENT));
+            analytics.put("totalFaculty", adminStatsService.countUsers(Role.FACULTY));
 
             return ResponseEntity.ok(analytics);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
-}
 
+    // Runs the daily rollup ETL now instead of waiting for the schedule
+    @PostMapping("/rollups/run")
+    public ResponseEntity<?> runRollups(@AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            Map<String, Object> report = rollupEtlService.runAll();
+            if (report.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Rollup run already in progress"));
+            }
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Latest at-risk ranking, highest risk first
+    @GetMapping("/at-risk")
+    public ResponseEntity<?> getAtRiskStudents(@RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "50") int size,
+                                               @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            int pageSize = Math.min(Math.max(size, 1), 500);
+            List<AtRiskScore> scores = atRiskScoreRepository.findAllByOrderByRankAsc(PageRequest.of(Math.max(page, 0), pageSize));
+            return ResponseEntity.ok(scores);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/at-risk/run")
+    public ResponseEntity<?> runAtRiskScoring(@AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            Map<String, Object> report = atRiskService.run();
+            if (report.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "At-risk scoring already in progress"));
+            }
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
 
+    private static ResponseEntity<?> historyResponse(ArchiveHistoryService.HistoryPage page) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            ok.header("X-Next-Cursor", page.nextCursor());
+        }
+        return ok.body(page.items());
+    }
+}
@@ -2,6 +2,16 @@ package com.example.campus.features;
 
 import com.example.campus.entity.*;
 import com.example.campus.repository.*;
+import com.example.campus.service.FileDownloadService;
+import com.example.campus.service.FileStorageService;
+import com.example.campus.service.GradingService;
+import com.example.campus.service.NotificationFeedService;
+import com.example.campus.service.NotificationService;
+import com.example.campus.service.PendingReviewCounter;
+import com.example.campus.service.ReminderService;
+import com.example.campus.service.RollupEtlService;
+import com.example.campus.service.SearchIndexService;
+import com.example.campus.service.SimilarityService;
 import com.example.campus.user.User;
 import com.example.campus.user.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,11 +20,25 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import com.example.campus.user.Role;
-
-
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @RestController
 @RequestMapping("/api/faculty")
@@ -47,6 +71,36 @@ public class FacultyController {
     @Autowired
     private TimetableRepository timetableRepository;
 
+    @Autowired
+    private NotificationFeedService notificationFeedService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private FileDownloadService fileDownloadService;
+
+    @Autowired
+    private PendingReviewCounter pendingReviewCounter;
+
+    @Autowired
+    private GradingService gradingService;
+
+    @Autowired
+    private SimilarityService similarityService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private RollupEtlService rollupEtlService;
+
     @GetMapping("/dashboard")
     public ResponseEntity<?> dashboard(@AuthenticationPrincipal UserDetails userDetails) {
         try {
@@ -62,17 +116,16 @@ public class FacultyController {
             // Assigned subjects
             List<String> assignedSubjects = Arrays.asList("CS101", "MA102");
 
-            // Pending submissions to review
-            List<AssignmentSubmission> pendingSubmissions = submissionRepository.findPendingSubmissionsByAssignment(1L);
+            // Submissions on this faculty's assignments still waiting for a grade
+            long pendingSubmissions = pendingReviewCounter.pendingFor(user.getUsername());
 
             // Recent notifications
-            List<Notification> notifications = notificationRepository.findByTargetRoleOrAll(Notification.TargetRole.FACULTY);
-            notifications = notifications.stream().limit(5).toList();
+            List<Notification> notifications = notificationFeedService.latest(Notification.TargetRole.FACULTY, user.getId(), 5);
 
             Map<String, Object> dashboard = new HashMap<>();
             dashboard.put("todaySchedule", todaySchedule);
             dashboard.put("assignedSubjects", assignedSubjects);
-            dashboard.put("pendingSubmissions", pendingSubmissions.size());
+            dashboard.put("pendingSubmissions", pendingSubmissions);
             dashboard.put("notifications", notifications);
 
             return ResponseEntity.ok(dashboard);
@@ -111,6 +164,8 @@ public class FacultyController {
             assignment.setCreatedAt(LocalDateTime.now());
 
             assignmentRepository.save(assignment);
+            searchIndexService.index(assignment);
+            reminderService.onAssignmentSaved(assignment);
             return ResponseEntity.ok(Map.of("message", "Assignment created successfully"));
 
         } catch (Exception e) {
@@ -141,7 +196,16 @@ public class FacultyController {
             if (assignment == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Assignment not found"));
             }
+            long pending = submissionRepository.countByAssignmentIdAndStatusIn(id, List.of(
+                    AssignmentSubmission.SubmissionStatus.SUBMITTED, AssignmentSubmission.SubmissionStatus.LATE));
+            // Submission rollups join the assignment, so every day its submissions were counted on changes
+            List<LocalDate> submittedDays = submissionRepository.findSubmittedDaysByAssignmentId(id);
             assignmentRepository.delete(assignment);
+            rollupEtlService.markDirty(DailyRollup.Source.SUBMISSION, submittedDays);
+            pendingReviewCounter.onAssignmentDeleted(assignment.getCreatedBy(), pending);
+            searchIndexService.remove(SearchIndexService.Type.ASSIGNMENT, assignment.getId());
+            similarityService.onAssignmentDeleted(assignment.getId());
+            reminderService.onAssignmentDeleted(assignment.getId());
             return ResponseEntity.ok(Map.of("message", "Assignment deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -149,6 +213,165 @@ public class FacultyController {
     }
 
 
+    // Uploaded file of one submission; supports Range, If-Range and If-None-Match
+    @GetMapping("/submissions/{submissionId}/file")
+    public ResponseEntity<?> downloadSubmissionFile(@PathVariable Long submissionId,
+                                                    @AuthenticationPrincipal UserDetails userDetails,
+                                                    HttpServletRequest request,
+                                                    HttpServletResponse response) {
+        try {
+            AssignmentSubmission submission = submissionRepository.findById(submissionId).orElse(null);
+            if (submission == null) {
+                return ResponseEntity.status(404).body(Map.of("error", "Submission not found"));
+            }
+            Assignment assignment = assignmentRepository.findById(submission.getAssignmentId()).orElse(null);
+            if (assignment == null || !userDetails.getUsername().equals(assignment.getCreatedBy())) {
+                return ResponseEntity.status(403).body(Map.of("error", "Not your assignment"));
+            }
+            Path file = fileStorageService.resolve(submission.getFilePath());
+            if (file == null) {
+                return ResponseEntity.status(404).body(Map.of("error", "No uploaded file for this submission"));
+            }
+
+            // The store is content-addressed, so the file name is already a strong validator
+            String etag = "\"" + file.getFileName() + "\"";
+            fileDownloadService.serve(request, response, file, etag, submission.getFileName(), submission.getContentType());
+            return null; // response already written
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Body: {"mirrorToMarks": true, "grades": [{"studentId": 1, "marks": 42, "feedback": "..."}, ...]}
+    @PostMapping("/assignments/{id}/grades")
+    public ResponseEntity<?> gradeSubmissions(@PathVariable Long id,
+                                              @RequestBody Map<String, Object> request,
+                                              @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            Assignment assignment = assignmentRepository.findById(id).orElse(null);
+            if (assignment == null) {
+                return ResponseEntity.status(404).body(Map.of("error", "Assignment not found"));
+            }
+            if (!userDetails.getUsername().equals(assignment.getCreatedBy())) {
+                return ResponseEntity.status(403).body(Map.of("error", "Not your assignment"));
+            }
+            if (!(request.get("grades") instanceof List<?> rows) || rows.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "grades must be a non-empty list"));
+            }
+
+            List<GradingService.GradeEntry> entries = new ArrayList<>(rows.size());
+            for (Object row : rows) {
+                if (!(row instanceof Map<?, ?> grade) || grade.get("studentId") == null) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "Every grade needs a studentId"));
+                }
+                Object marks = grade.get("marks");
+                Object feedback = grade.get("feedback");
+                try {
+                    entries.add(new GradingService.GradeEntry(
+                            Long.valueOf(grade.get("studentId").toString()),
+                            marks != null ? Integer.valueOf(marks.toString()) : null,
+                            feedback != null ? feedback.toString() : null));
+                } catch (NumberFormatException e) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "Invalid number in grade: " + grade));
+                }
+            }
+            boolean mirrorToMarks = Boolean.parseBoolean(String.valueOf(request.getOrDefault("mirrorToMarks", "false")));
+
+            return ResponseEntity.ok(gradingService.grade(assignment, userDetails.getUsername(), entries, mirrorToMarks));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Pairs of submissions with nearly the same text, by estimated Jaccard similarity of their word shingles
+    @GetMapping("/assignments/{id}/similar")
+    public ResponseEntity<?> similarSubmissions(@PathVariable Long id,
+                                                @RequestParam(defaultValue = "0.6") double threshold,
+                                                @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            Assignment assignment = assignmentRepository.findById(id).orElse(null);
+            if (assignment == null) {
+                return ResponseEntity.status(404).body(Map.of("error", "Assignment not found"));
+            }
+            if (!userDetails.getUsername().equals(assignment.getCreatedBy())) {
+                return ResponseEntity.status(403).body(Map.of("error", "Not your assignment"));
+            }
+            if (threshold <= 0 || threshold > 1) {
+                return ResponseEntity.badRequest().body(Map.of("error", "threshold must be in (0, 1]"));
+            }
+            List<SimilarityService.SimilarPair> pairs = similarityService.similarPairs(id, threshold);
+            return ResponseEntity.ok(Map.of("assignmentId", id, "threshold", threshold, "count", pairs.size(), "pairs", pairs));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Every uploaded file for the assignment plus a CSV manifest, zipped while streaming
+    @GetMapping("/assignments/{id}/submissions.zip")
+    public ResponseEntity<?> downloadAllSubmissions(@PathVariable Long id,
+                                                    @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            Assignment assignment = assignmentRepository.findById(id).orElse(null);
+            if (assignment == null) {
+                return ResponseEntity.status(404).body(Map.of("error", "Assignment not found"));
+            }
+            if (!userDetails.getUsername().equals(assignment.getCreatedBy())) {
+                return ResponseEntity.status(403).body(Map.of("error", "Not your assignment"));
+            }
+            List<AssignmentSubmission> submissions = submissionRepository.findByAssignmentId(id);
+
+            StreamingResponseBody body = out -> {
+                ZipOutputStream zip = new ZipOutputStream(out);
+                zip.setLevel(Deflater.BEST_SPEED); // mostly PDFs, which barely compress
+                StringBuilder manifest = new StringBuilder("submissionId,studentId,status,submittedAt,file,fileUrl\n");
+                for (AssignmentSubmission submission : submissions) {
+                    Path file = fileStorageService.resolve(submission.getFilePath());
+                    String entryName = null;
+                    if (file != null) {
+                        entryName = submission.getStudentId() + "-" + submission.getId() + "-" + safeFileName(submission.getFileName());
+                        zip.putNextEntry(new ZipEntry(entryName));
+                        Files.copy(file, zip);
+                        zip.closeEntry();
+                    }
+                    manifest.append(submission.getId()).append(',')
+                            .append(submission.getStudentId()).append(',')
+                            .append(submission.getStatus()).append(',')
+                            .append(submission.getSubmittedAt()).append(',')
+                            .append(entryName != null ? entryName : "").append(',')
+                            .append(file == null && submission.getFilePath() != null ? csv(submission.getFilePath()) : "")
+                            .append('\n');
+                }
+                zip.putNextEntry(new ZipEntry("submissions.csv"));
+                Writer writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+                writer.write(manifest.toString());
+                writer.flush();
+                zip.closeEntry();
+                zip.finish();
+            };
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename("assignment-" + id + "-submissions.zip").build().toString())
+                    .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static String safeFileName(String name) {
+        if (name == null || name.isBlank()) {
+            return "submission";
+        }
+        String base = name.replace('\\', '/');
+        base = base.substring(base.lastIndexOf('/') + 1);
+        return base.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static String csv(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
     @GetMapping("/students")
     public ResponseEntity<?> getStudentsForAttendance() {
         try {
@@ -268,18 +491,32 @@ public class FacultyController {
             notification.setCreatedBy(user.getUsername());
             notification.setTargetRole(Notification.TargetRole.valueOf(notificationData.get("targetRole").toString()));
 
-            notificationRepository.save(notification);
+            notificationService.create(notification);
             return ResponseEntity.ok(Map.of("message", "Notification created successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
+    // Newest first; pass the X-Next-Cursor header back as ?before= for the next page
     @GetMapping("/notifications")
-    public ResponseEntity<?> getNotifications(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getNotifications(@RequestParam(required = false) String before,
+                                              @RequestParam(defaultValue = "20") int limit,
+                                              @AuthenticationPrincipal UserDetails userDetails) {
         try {
-            List<Notification> notifications = notificationRepository.findByTargetRoleOrAll(Notification.TargetRole.FACULTY);
-            return ResponseEntity.ok(notifications);
+            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+
+            NotificationFeedService.FeedPage page = notificationFeedService.page(Notification.TargetRole.FACULTY, user.getId(), before, limit);
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                ok.header("X-Next-Cursor", page.nextCursor());
+            }
+            return ok.body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
@@ -293,16 +530,18 @@ public class FacultyController {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            Notification notification = notificationRepository.findById(id).orElse(null);
+            String title = notificationData.get("title").toString();
+            String message = notificationData.get("message").toString();
+            Notification.TargetRole targetRole = Notification.TargetRole.valueOf(notificationData.get("targetRole").toString());
+
+            Notification notification = notificationService.update(id, n -> {
+                n.setTitle(title);
+                n.setMessage(message);
+                n.setTargetRole(targetRole);
+            });
             if (notification == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Notification not found"));
             }
-
-            notification.setTitle(notificationData.get("title").toString());
-            notification.setMessage(notificationData.get("message").toString());
-            notification.setTargetRole(Notification.TargetRole.valueOf(notificationData.get("targetRole").toString()));
-
-            notificationRepository.save(notification);
             return ResponseEntity.ok(Map.of("message", "Notification updated successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -317,12 +556,9 @@ public class FacultyController {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            Notification notification = notificationRepository.findById(id).orElse(null);
-            if (notification == null) {
+            if (!notificationService.delete(id)) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Notification not found"));
             }
-
-            notificationRepository.delete(notification);
             return ResponseEntity.ok(Map.of("message", "Notification deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
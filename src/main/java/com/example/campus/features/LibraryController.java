@@ -0,0 +1,37 @@
+package com.example.campus.features;
+
+import com.example.campus.service.CatalogSearchIndex;
+import com.example.campus.service.LibrarySearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/library")
+public class LibraryController {
+
+    @Autowired
+    private LibrarySearchService librarySearchService;
+
+    // Prefix and typo-tolerant search over title, author and ISBN
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        try {
+            if (q.isBlank()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "q must not be blank"));
+            }
+            if (page < 0 || (long) page * Math.min(Math.max(size, 1), LibrarySearchService.MAX_PAGE_SIZE) >= CatalogSearchIndex.MAX_WINDOW) {
+                return ResponseEntity.badRequest().body(Map.of("error",
+                        "Only the first " + CatalogSearchIndex.MAX_WINDOW + " results can be paged through; refine the query"));
+            }
+            String query = q.length() > 200 ? q.substring(0, 200) : q;
+            return ResponseEntity.ok(librarySearchService.search(query, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
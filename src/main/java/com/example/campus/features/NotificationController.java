@@ -0,0 +1,114 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.Notification;
+import com.example.campus.service.NotificationHub;
+import com.example.campus.service.ReadReceiptService;
+import com.example.campus.user.User;
+import com.example.campus.user.UserRepository;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Autowired
+    private ReadReceiptService readReceiptService;
+
+    // Live notifications for the caller's role and user id as Server-Sent Events
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                             @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+                             @AuthenticationPrincipal UserDetails userDetails,
+                             HttpServletResponse response) {
+        User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User not found");
+        }
+
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        Long resumeAfter = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                resumeAfter = Long.valueOf(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Last-Event-ID");
+            }
+        }
+
+        response.setHeader("X-Accel-Buffering", "no"); // stop nginx from buffering the stream
+        return notificationHub.connect(roleOf(user), user.getId(), resumeAfter);
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<?> unreadCount(@AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+            int unread = readReceiptService.unreadCount(roleOf(user), user.getId());
+            return ResponseEntity.ok(Map.of("unread", unread));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Body: {"ids": [..]} for individual notifications, {"upTo": id} for everything up to an id, or {"all": true}
+    @PostMapping("/read")
+    public ResponseEntity<?> markRead(@RequestBody Map<String, Object> request, @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+
+            Notification.TargetRole role = roleOf(user);
+            int unread;
+            if (Boolean.TRUE.equals(request.get("all"))) {
+                unread = readReceiptService.markReadUpTo(role, user.getId(), null);
+            } else if (request.get("upTo") != null) {
+                unread = readReceiptService.markReadUpTo(role, user.getId(), Long.valueOf(request.get("upTo").toString()));
+            } else if (request.get("ids") instanceof List<?> ids) {
+                if (ids.size() > ReadReceiptService.MAX_IDS_PER_REQUEST) {
+                    return ResponseEntity.badRequest().body(Map.of("error",
+                            "At most " + ReadReceiptService.MAX_IDS_PER_REQUEST + " ids per request"));
+                }
+                List<Long> notificationIds = new ArrayList<>(ids.size());
+                for (Object id : ids) {
+                    notificationIds.add(Long.valueOf(id.toString()));
+                }
+                unread = readReceiptService.markRead(role, user.getId(), notificationIds);
+            } else {
+                return ResponseEntity.badRequest().body(Map.of("error", "Provide ids, upTo or all"));
+            }
+            return ResponseEntity.ok(Map.of("unread", unread));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid notification id"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static Notification.TargetRole roleOf(User user) {
+        return Notification.TargetRole.valueOf(user.getRole().name());
+    }
+}
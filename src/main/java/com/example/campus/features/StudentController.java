@@ -6,13 +6,24 @@ package com.example.campus.features;
 import com.example.campus.entity.*;
 import com.example.campus.repository.*;
 import com.example.campus.security.JwtService;
+import com.example.campus.service.FeeLedgerService;
+import com.example.campus.service.FeeLedgerSummary;
+import com.example.campus.service.FileStorageService;
+import com.example.campus.service.NotificationFeedService;
+import com.example.campus.service.ReadReceiptService;
+import com.example.campus.service.SearchIndexService;
+import com.example.campus.service.StudentAssignmentService;
+import com.example.campus.service.SubmissionService;
 import com.example.campus.user.User;
 import com.example.campus.user.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.HttpStatus;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -49,6 +60,18 @@ public class StudentController {
     @Autowired
     private FeedbackRepository feedbackRepository;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private StudentAssignmentService studentAssignmentService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -64,6 +87,15 @@ public class StudentController {
     @Autowired
     private LibraryRepository libraryRepository;
 
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+
+    @Autowired
+    private NotificationFeedService notificationFeedService;
+
+    @Autowired
+    private ReadReceiptService readReceiptService;
+
     @GetMapping("/dashboard")
     public ResponseEntity<?> dashboard(@AuthenticationPrincipal UserDetails userDetails) {
         try {
@@ -81,12 +113,10 @@ public class StudentController {
 
 
             // Fee status
-            BigDecimal totalPaid = feeRepository.calculateTotalPaid(studentId);
-            BigDecimal totalPending = feeRepository.calculateTotalPending(studentId);
+            FeeLedgerSummary feeSummary = feeLedgerService.summary(studentId);
 
             // Recent notifications
-            List<Notification> notifications = notificationRepository.findByTargetRoleOrAll(Notification.TargetRole.STUDENT);
-            notifications = notifications.stream().limit(5).toList();
+            List<Notification> notifications = notificationFeedService.latest(Notification.TargetRole.STUDENT, user.getId(), 5);
 
             // CGPA calculation
             Double cgpa = markRepository.calculateCGPA(studentId);
@@ -95,8 +125,10 @@ public class StudentController {
             Map<String, Object> dashboard = new HashMap<>();
             dashboard.put("todayAttendance", todayAttendance);
 
-            dashboard.put("totalPaid", totalPaid != null ? totalPaid : BigDecimal.ZERO);
-            dashboard.put("totalPending", totalPending != null ? totalPending : BigDecimal.ZERO);
+            dashboard.put("totalPaid", feeSummary.totalPaid());
+            dashboard.put("totalPending", feeSummary.totalPending());
+            dashboard.put("totalOverdue", feeSummary.totalOverdue());
+            dashboard.put("feeStatus", feeSummary.state());
             dashboard.put("notifications", notifications);
             dashboard.put("cgpa", Math.round(cgpa * 100.0) / 100.0);
             dashboard.put("studyHours", 3.5); // Mock data
@@ -129,6 +161,7 @@ public class StudentController {
                 bookMap.put("isbn", book.getIsbn());
                 bookMap.put("issuedAt", book.getIssuedAt() != null ? book.getIssuedAt().toString() : "");
                 bookMap.put("dueDate", book.getDueDate() != null ? book.getDueDate().toString() : "");
+                bookMap.put("returnedAt", book.getReturnedAt() != null ? book.getReturnedAt().toString() : null);
                 response.add(bookMap);
             }
 
@@ -166,32 +199,122 @@ public class StudentController {
                 return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
             }
 
-            Long studentId = user.getId();
-            String fileUrl = request.get("fileUrl"); // or text content if needed
-
-            Assignment assignment = assignmentRepository.findById(assignmentId).orElse(null);
-            if (assignment == null) {
+            SubmissionService.SubmitResult result = submissionService.submit(assignmentId, user.getId(),
+                    request.get("submissionText"), request.get("fileUrl"));
+            if (result.outcome() == SubmissionService.Outcome.NOT_FOUND) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Assignment not found"));
             }
 
-            // Save submission details directly in Assignment entity
-            assignment.setStudentId(studentId);
+            AssignmentSubmission submission = result.submission();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("outcome", result.outcome());
+            body.put("submissionId", submission.getId());
+            body.put("status", submission.getStatus());
+            body.put("submittedAt", submission.getSubmittedAt());
+            if (result.outcome() == SubmissionService.Outcome.ALREADY_GRADED) {
+                body.put("error", "Submission has already been graded");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+            }
+            body.put("message", result.outcome() == SubmissionService.Outcome.RESUBMITTED
+                    ? "Assignment resubmitted successfully" : "Assignment submitted successfully");
+            return ResponseEntity.ok(body);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
 
-            assignment.setSubmittedAt(LocalDateTime.now());
+    // Multipart file submission; the part is streamed into the content-addressed store
+    @PostMapping("/assignments/{assignmentId}/upload")
+    public ResponseEntity<?> uploadAssignment(
+            @PathVariable Long assignmentId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String submissionText,
+            @AuthenticationPrincipal UserDetails userDetails) {
 
-            assignmentRepository.save(assignment);
+        try {
+            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+            if (file.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "File is empty"));
+            }
+            if (!assignmentRepository.existsById(assignmentId)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Assignment not found"));
+            }
+            AssignmentSubmission previous = submissionRepository.findByAssignmentIdAndStudentId(assignmentId, user.getId());
+            if (previous != null && previous.getStatus() == AssignmentSubmission.SubmissionStatus.GRADED) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Submission has already been graded"));
+            }
+
+            FileStorageService.StoredFile stored;
+            try (var in = file.getInputStream()) {
+                stored = fileStorageService.store(in, file.getSize());
+            } catch (FileStorageService.UploadRejectedException e) {
+                return ResponseEntity.status(e.isBusy() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.PAYLOAD_TOO_LARGE)
+                        .body(Map.of("error", e.getMessage()));
+            }
+
+            // If the submit below is refused after all (a race with a delete or a grade), or replaces an
+            // earlier file, the unreferenced blob is left to UploadSweepService: blobs may be shared
+            SubmissionService.SubmitResult result = submissionService.submit(assignmentId, user.getId(), submissionText,
+                    stored.path(), file.getOriginalFilename(), stored.size(), file.getContentType());
+            if (result.outcome() == SubmissionService.Outcome.NOT_FOUND) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Assignment not found"));
+            }
 
-            return ResponseEntity.ok(Map.of("message", "Assignment submitted successfully"));
+            AssignmentSubmission submission = result.submission();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("outcome", result.outcome());
+            body.put("submissionId", submission.getId());
+            body.put("status", submission.getStatus());
+            body.put("submittedAt", submission.getSubmittedAt());
+            body.put("sha256", stored.hash());
+            body.put("size", stored.size());
+            if (result.outcome() == SubmissionService.Outcome.ALREADY_GRADED) {
+                body.put("error", "Submission has already been graded");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+            }
+            body.put("message", "File uploaded successfully");
+            return ResponseEntity.ok(body);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
+    // Open and recently due assignments for the student's subjects, soonest first, with their submission status;
+    // pass the X-Next-Cursor header back as ?after= for the next page
     @GetMapping("/assignments")
-    public ResponseEntity<?> getAssignments(@AuthenticationPrincipal UserDetails userDetails) {
-        // fetch all assignments where dueDate >= today
-        List<Assignment> assignments = assignmentRepository.findAll();
-        return ResponseEntity.ok(assignments);
+    public ResponseEntity<?> getAssignments(@RequestParam(required = false) String after,
+                                            @RequestParam(defaultValue = "20") int limit,
+                                            @AuthenticationPrincipal UserDetails userDetails,
+                                            WebRequest request) {
+        try {
+            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+
+            StudentAssignmentService.AssignmentPage page;
+            try {
+                page = studentAssignmentService.page(user.getId(), user.getUsername(), after, limit);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+            if (request.checkNotModified(page.etag())) {
+                return null; // 304 already prepared
+            }
+
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                    .eTag(page.etag())
+                    .cacheControl(CacheControl.noCache().cachePrivate());
+            if (page.nextCursor() != null) {
+                ok.header("X-Next-Cursor", page.nextCursor());
+            }
+            return ok.body(page.items());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
     }
 
 
@@ -271,13 +394,14 @@ public class StudentController {
             }
 
             List<Fee> fees = feeRepository.findByStudentId(user.getId());
-            BigDecimal totalPaid = feeRepository.calculateTotalPaid(user.getId());
-            BigDecimal totalPending = feeRepository.calculateTotalPending(user.getId());
+            FeeLedgerSummary feeSummary = feeLedgerService.summary(user.getId());
 
             Map<String, Object> result = new HashMap<>();
             result.put("fees", fees);
-            result.put("totalPaid", totalPaid != null ? totalPaid : BigDecimal.ZERO);
-            result.put("totalPending", totalPending != null ? totalPending : BigDecimal.ZERO);
+            result.put("totalPaid", feeSummary.totalPaid());
+            result.put("totalPending", feeSummary.totalPending());
+            result.put("totalOverdue", feeSummary.totalOverdue());
+            result.put("summary", feeSummary);
 
             return ResponseEntity.ok(result);
         } catch (Exception e) {
@@ -300,21 +424,31 @@ public class StudentController {
             newFeedback.setCategory(Feedback.Category.valueOf(feedback.get("category")));
 
             feedbackRepository.save(newFeedback);
+            searchIndexService.index(newFeedback);
             return ResponseEntity.ok(Map.of("message", "Feedback submitted successfully"));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
+    // Newest first; pass the X-Next-Cursor header back as ?before= for the next page
     @GetMapping("/notifications")
-    public ResponseEntity<?> getNotifications(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getNotifications(@RequestParam(required = false) String before,
+                                              @RequestParam(defaultValue = "20") int limit,
+                                              @AuthenticationPrincipal UserDetails userDetails) {
         User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
         if (user == null) {
             return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
         }
 
         // Fetch notifications for STUDENT or ALL
-        List<Notification> notifications = notificationRepository.findByTargetRoleOrAll(Notification.TargetRole.STUDENT);
+        NotificationFeedService.FeedPage page;
+        try {
+            page = notificationFeedService.page(Notification.TargetRole.STUDENT, user.getId(), before, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        List<Notification> notifications = page.items();
 
         // Convert LocalDateTime to string for frontend
         List<Map<String, Object>> response = new ArrayList<>();
@@ -325,10 +459,15 @@ public class StudentController {
             notif.put("message", n.getMessage());
             notif.put("createdBy", n.getCreatedBy());
             notif.put("createdAt", n.getCreatedAt() != null ? n.getCreatedAt().toString() : null);
+            notif.put("read", readReceiptService.isRead(Notification.TargetRole.STUDENT, user.getId(), n.getId()));
             response.add(notif);
         }
 
-        return ResponseEntity.ok(response);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            ok.header("X-Next-Cursor", page.nextCursor());
+        }
+        return ok.body(response);
     }
     // 1️⃣ Get student profile
     @GetMapping("/profile")
@@ -466,4 +605,3 @@ public class StudentController {
         }
     }
 }
-
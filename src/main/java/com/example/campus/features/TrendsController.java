@@ -0,0 +1,83 @@
+package com.example.campus.features;
+
+import com.example.campus.entity.DailyRollup;
+import com.example.campus.service.TrendService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/admin/trends")
+public class TrendsController {
+
+    @Autowired
+    private TrendService trendService;
+
+    @GetMapping("/attendance")
+    public ResponseEntity<?> attendanceTrend(@RequestParam(defaultValue = "week") String bucket,
+                                             @RequestParam(required = false) String from,
+                                             @RequestParam(required = false) String to,
+                                             @RequestParam(required = false) String subject,
+                                             @RequestParam(required = false) String department,
+                                             WebRequest request) {
+        return trend(DailyRollup.Source.ATTENDANCE, bucket, from, to, subject, department, request);
+    }
+
+    @GetMapping("/marks")
+    public ResponseEntity<?> marksTrend(@RequestParam(defaultValue = "week") String bucket,
+                                        @RequestParam(required = false) String from,
+                                        @RequestParam(required = false) String to,
+                                        @RequestParam(required = false) String subject,
+                                        @RequestParam(required = false) String department,
+                                        WebRequest request) {
+        return trend(DailyRollup.Source.MARK, bucket, from, to, subject, department, request);
+    }
+
+    private ResponseEntity<?> trend(DailyRollup.Source source, String bucketParam, String fromParam, String toParam,
+                                    String subject, String department, WebRequest request) {
+        try {
+            TrendService.Bucket bucket;
+            LocalDate to;
+            LocalDate from;
+            try {
+                bucket = TrendService.Bucket.valueOf(bucketParam.toUpperCase());
+                to = toParam != null ? LocalDate.parse(toParam) : LocalDate.now();
+                from = fromParam != null ? LocalDate.parse(fromParam) : to.minusWeeks(12);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid bucket or date: " + e.getMessage()));
+            }
+            if (from.isAfter(to)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "'from' must not be after 'to'"));
+            }
+
+            String etag = trendService.etag(source, bucket, from, to, subject, department);
+            if (request.checkNotModified(etag)) {
+                return null; // 304 already prepared
+            }
+
+            List<Map<String, Object>> series = source == DailyRollup.Source.ATTENDANCE
+                    ? trendService.attendance(bucket, from, to, subject, department, etag)
+                    : trendService.marks(bucket, from, to, subject, department, etag);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("bucket", bucket.name().toLowerCase());
+            result.put("from", from.toString());
+            result.put("to", to.toString());
+            result.put("subject", subject);
+            result.put("department", department);
+            result.put("series", series);
+
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(result);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,10 +1,52 @@
 package com.example.campus.repository;
 
 import com.example.campus.entity.Assignment;  // ✅ import from entity package
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     List<Assignment> findByCreatedBy(String facultyName);
     List<Assignment> findByStudentId(Long studentId);
+    List<Assignment> findByDueDateAfter(LocalDateTime dueDate);
+
+    // Student listing, due soonest first, after the (afterDue, afterId) keyset, with the student's own submission:
+    // [id, title, description, subject, maxMarks, dueDate, createdBy, submissionId, status, submittedAt, marksObtained]
+    @Query("SELECT a.id, a.title, a.description, a.subject, a.maxMarks, a.dueDate, a.createdBy, " +
+            "s.id, s.status, s.submittedAt, s.marksObtained " +
+            "FROM Assignment a LEFT JOIN AssignmentSubmission s ON s.assignmentId = a.id AND s.studentId = :studentId " +
+            "WHERE a.subject IN :subjects AND a.dueDate >= :dueFrom " +
+            "AND (a.dueDate > :afterDue OR (a.dueDate = :afterDue AND a.id > :afterId)) " +
+            "ORDER BY a.dueDate ASC, a.id ASC")
+    List<Object[]> findStudentPage(@Param("studentId") Long studentId, @Param("subjects") Collection<String> subjects,
+                                   @Param("dueFrom") LocalDateTime dueFrom, @Param("afterDue") LocalDateTime afterDue,
+                                   @Param("afterId") Long afterId, Pageable page);
+
+    // Same as findStudentPage for students whose enrolment cannot be resolved: every subject
+    @Query("SELECT a.id, a.title, a.description, a.subject, a.maxMarks, a.dueDate, a.createdBy, " +
+            "s.id, s.status, s.submittedAt, s.marksObtained " +
+            "FROM Assignment a LEFT JOIN AssignmentSubmission s ON s.assignmentId = a.id AND s.studentId = :studentId " +
+            "WHERE a.dueDate >= :dueFrom " +
+            "AND (a.dueDate > :afterDue OR (a.dueDate = :afterDue AND a.id > :afterId)) " +
+            "ORDER BY a.dueDate ASC, a.id ASC")
+    List<Object[]> findStudentPageAllSubjects(@Param("studentId") Long studentId, @Param("dueFrom") LocalDateTime dueFrom,
+                                              @Param("afterDue") LocalDateTime afterDue, @Param("afterId") Long afterId,
+                                              Pageable page);
+
+    // At-risk scoring: per student account, assignments past due in the subjects of their department and semester
+    // (the whole department when the semester has none), and how many of those they submitted: [userId, due, submitted]
+    @Query("SELECT u.id, COUNT(DISTINCT a.id), COUNT(DISTINCT s.id) FROM User u " +
+            "JOIN Student st ON st.email = u.username " +
+            "JOIN Subject sub ON sub.department = st.department AND (sub.semester = st.semester OR NOT EXISTS " +
+            "(SELECT 1 FROM Subject x WHERE x.department = st.department AND x.semester = st.semester)) " +
+            "JOIN Assignment a ON (a.subject = sub.subjectName OR a.subject = sub.subjectCode) " +
+            "LEFT JOIN AssignmentSubmission s ON s.assignmentId = a.id AND s.studentId = u.id " +
+            "WHERE u.id BETWEEN :fromId AND :toId AND a.dueDate < :now GROUP BY u.id")
+    List<Object[]> countDueAssignmentsByStudent(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                                @Param("now") LocalDateTime now);
 }
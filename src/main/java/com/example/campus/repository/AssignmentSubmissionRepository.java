@@ -1,21 +1,60 @@
 package com.example.campus.repository;
 
 import com.example.campus.entity.AssignmentSubmission;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AssignmentSubmissionRepository extends JpaRepository<AssignmentSubmission, Long> {
     List<AssignmentSubmission> findByStudentId(Long studentId);
     List<AssignmentSubmission> findByAssignmentId(Long assignmentId);
+
+    @Query("SELECT s.studentId FROM AssignmentSubmission s WHERE s.assignmentId = :assignmentId")
+    List<Long> findStudentIdsByAssignmentId(@Param("assignmentId") Long assignmentId);
     
     @Query("SELECT s FROM AssignmentSubmission s WHERE s.assignmentId = :assignmentId AND s.studentId = :studentId")
     AssignmentSubmission findByAssignmentIdAndStudentId(@Param("assignmentId") Long assignmentId, @Param("studentId") Long studentId);
     
+    // Pending-review counter: submissions in the given states across one faculty member's assignments
+    @Query("SELECT COUNT(s) FROM AssignmentSubmission s JOIN Assignment a ON a.id = s.assignmentId " +
+            "WHERE a.createdBy = :faculty AND s.status IN :statuses")
+    long countByFacultyAndStatusIn(@Param("faculty") String faculty,
+                                   @Param("statuses") Collection<AssignmentSubmission.SubmissionStatus> statuses);
+
+    long countByAssignmentIdAndStatusIn(Long assignmentId, Collection<AssignmentSubmission.SubmissionStatus> statuses);
+
     @Query("SELECT s FROM AssignmentSubmission s WHERE s.status = 'SUBMITTED' AND s.assignmentId = :assignmentId")
     List<AssignmentSubmission> findPendingSubmissionsByAssignment(@Param("assignmentId") Long assignmentId);
+
+    // Rollup ETL: days holding an assignment's submissions, marked dirty when it is deleted
+    @Query("SELECT DISTINCT CAST(s.submittedAt AS LocalDate) FROM AssignmentSubmission s " +
+            "WHERE s.assignmentId = :assignmentId AND s.submittedAt IS NOT NULL")
+    List<LocalDate> findSubmittedDaysByAssignmentId(@Param("assignmentId") Long assignmentId);
+
+    // Upload sweep: which of the given stored-file paths some submission still points at
+    @Query("SELECT DISTINCT s.filePath FROM AssignmentSubmission s WHERE s.filePath IN :paths")
+    List<String> findReferencedFilePaths(@Param("paths") Collection<String> paths);
+
+    // Rollup ETL: rows changed after the (since, lastId) watermark, oldest first: [id, updatedAt, submittedAt]
+    @Query("SELECT s.id, s.updatedAt, s.submittedAt FROM AssignmentSubmission s " +
+            "WHERE s.updatedAt < :upTo AND (s.updatedAt > :since OR (s.updatedAt = :since AND s.id > :lastId)) " +
+            "ORDER BY s.updatedAt ASC, s.id ASC")
+    List<Object[]> findChangedSince(@Param("since") LocalDateTime since, @Param("lastId") Long lastId,
+                                    @Param("upTo") LocalDateTime upTo, Pageable page);
+
+    // Rollup ETL: submissions made in [from, to), by assignment subject:
+    // [subject, status, count, sum(marksObtained), sum(maxMarks of graded rows)]
+    @Query("SELECT a.subject, s.status, COUNT(s), SUM(s.marksObtained), " +
+            "SUM(CASE WHEN s.marksObtained IS NOT NULL THEN a.maxMarks ELSE 0 END) " +
+            "FROM AssignmentSubmission s JOIN Assignment a ON a.id = s.assignmentId " +
+            "WHERE s.submittedAt >= :from AND s.submittedAt < :to GROUP BY a.subject, s.status")
+    List<Object[]> aggregateSubmittedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
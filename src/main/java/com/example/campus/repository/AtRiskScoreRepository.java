@@ -0,0 +1,13 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.AtRiskScore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AtRiskScoreRepository extends JpaRepository<AtRiskScore, Long> {
+    List<AtRiskScore> findAllByOrderByRankAsc(Pageable page);
+}
@@ -1,12 +1,14 @@
 package com.example.campus.repository;
 
 import com.example.campus.entity.Attendance;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;  // <-- import missing
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,4 +33,20 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
 
     @Query("SELECT COUNT(a) FROM Attendance a WHERE a.studentId = :studentId AND a.subject = :subject")
     Long countTotalByStudentAndSubject(@Param("studentId") Long studentId, @Param("subject") String subject);
+
+    // Rollup ETL: rows changed after the (since, lastId) watermark, oldest first: [id, updatedAt, date]
+    @Query("SELECT a.id, a.updatedAt, a.date FROM Attendance a " +
+            "WHERE a.updatedAt < :upTo AND (a.updatedAt > :since OR (a.updatedAt = :since AND a.id > :lastId)) " +
+            "ORDER BY a.updatedAt ASC, a.id ASC")
+    List<Object[]> findChangedSince(@Param("since") LocalDateTime since, @Param("lastId") Long lastId,
+                                    @Param("upTo") LocalDateTime upTo, Pageable page);
+
+    // Rollup ETL: one day of attendance: [subject, status, count]
+    @Query("SELECT a.subject, a.status, COUNT(a) FROM Attendance a WHERE a.date = :day GROUP BY a.subject, a.status")
+    List<Object[]> aggregateDay(@Param("day") LocalDate day);
+
+    // At-risk scoring: per-student attendance for a block of student ids: [studentId, present, total]
+    @Query("SELECT a.studentId, SUM(CASE WHEN a.status = 'PRESENT' THEN 1 ELSE 0 END), COUNT(a) FROM Attendance a " +
+            "WHERE a.studentId BETWEEN :fromId AND :toId GROUP BY a.studentId")
+    List<Object[]> summarizeByStudent(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
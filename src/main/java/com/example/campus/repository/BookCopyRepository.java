@@ -0,0 +1,27 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.BookCopy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BookCopyRepository extends JpaRepository<BookCopy, Long> {
+    long countByBookTitleIdAndStatus(Long bookTitleId, BookCopy.CopyStatus status);
+
+    // Issue path: copies of a title in a status after the given id, over the (book_title_id, status) index
+    @Query("SELECT c.id FROM BookCopy c WHERE c.bookTitleId = :titleId AND c.status = :status AND c.id > :afterId " +
+            "ORDER BY c.id ASC")
+    List<Long> findIdsByStatusAfter(@Param("titleId") Long titleId, @Param("status") BookCopy.CopyStatus status,
+                                    @Param("afterId") Long afterId, Pageable page);
+
+    // Moves a copy between statuses only if it is still in the expected one
+    @Modifying
+    @Query("UPDATE BookCopy c SET c.status = :to WHERE c.id = :id AND c.status = :from")
+    int changeStatus(@Param("id") Long id, @Param("from") BookCopy.CopyStatus from, @Param("to") BookCopy.CopyStatus to);
+}
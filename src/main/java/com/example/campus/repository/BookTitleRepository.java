@@ -0,0 +1,31 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.BookTitle;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BookTitleRepository extends JpaRepository<BookTitle, Long> {
+    Optional<BookTitle> findByIsbn(String isbn);
+
+    // Takes one copy off the shelf count; 0 rows means none were left
+    @Modifying
+    @Query("UPDATE BookTitle b SET b.availableCopies = b.availableCopies - 1, b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.id = :id AND b.availableCopies > 0")
+    int takeCopy(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE BookTitle b SET b.availableCopies = b.availableCopies + 1, b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.id = :id AND b.availableCopies < b.totalCopies")
+    int returnCopy(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE BookTitle b SET b.totalCopies = b.totalCopies + :count, " +
+            "b.availableCopies = b.availableCopies + :count, b.updatedAt = CURRENT_TIMESTAMP WHERE b.id = :id")
+    int addCopies(@Param("id") Long id, @Param("count") int count);
+}
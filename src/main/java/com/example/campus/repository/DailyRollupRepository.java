@@ -0,0 +1,29 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.DailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, Long> {
+
+    List<DailyRollup> findBySourceAndDayBetween(DailyRollup.Source source, LocalDate from, LocalDate to);
+
+    // Buckets for trend queries; subject and department are optional filters
+    @Query("SELECT r FROM DailyRollup r WHERE r.source = :source AND r.day BETWEEN :from AND :to " +
+            "AND (:subject IS NULL OR r.subject = :subject) AND (:department IS NULL OR r.department = :department) " +
+            "ORDER BY r.day ASC")
+    List<DailyRollup> findForTrend(@Param("source") DailyRollup.Source source,
+                                   @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                   @Param("subject") String subject, @Param("department") String department);
+
+    @Modifying
+    @Query("DELETE FROM DailyRollup r WHERE r.source = :source AND r.day = :day")
+    int deleteBySourceAndDay(@Param("source") DailyRollup.Source source, @Param("day") LocalDate day);
+}
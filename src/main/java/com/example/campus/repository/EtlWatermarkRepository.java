@@ -0,0 +1,10 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.DailyRollup;
+import com.example.campus.entity.EtlWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EtlWatermarkRepository extends JpaRepository<EtlWatermark, DailyRollup.Source> {
+}
@@ -1,22 +1,77 @@
 package com.example.campus.repository;
 
 import com.example.campus.entity.Fee;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface FeeRepository extends JpaRepository<Fee, Long> {
     List<Fee> findByStudentId(Long studentId);
     List<Fee> findByStudentIdAndStatus(Long studentId, Fee.PaymentStatus status);
-    
-    @Query("SELECT SUM(f.amount) FROM Fee f WHERE f.studentId = :studentId AND f.status = 'PAID'")
-    BigDecimal calculateTotalPaid(@Param("studentId") Long studentId);
-    
-    @Query("SELECT SUM(f.amount) FROM Fee f WHERE f.studentId = :studentId AND f.status = 'PENDING'")
-    BigDecimal calculateTotalPending(@Param("studentId") Long studentId);
+    long countByScheduleId(Long scheduleId);
+
+    // Ledger for one student, one row per status:
+    // [status, count, sum(amount), count past due, sum(amount) past due]
+    @Query("SELECT f.status, COUNT(f), SUM(f.amount), " +
+            "SUM(CASE WHEN f.dueDate < :now THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN f.dueDate < :now THEN f.amount ELSE 0 END) " +
+            "FROM Fee f WHERE f.studentId = :studentId GROUP BY f.status")
+    List<Object[]> summarizeLedger(@Param("studentId") Long studentId, @Param("now") LocalDateTime now);
+
+    // Overdue sweeper: next chunk of PENDING fees past due after the (afterDue, afterId) key: [id, studentId, dueDate]
+    @Query("SELECT f.id, f.studentId, f.dueDate FROM Fee f " +
+            "WHERE f.status = :pending AND f.dueDate < :now " +
+            "AND (f.dueDate > :afterDue OR (f.dueDate = :afterDue AND f.id > :afterId)) " +
+            "ORDER BY f.dueDate ASC, f.id ASC")
+    List<Object[]> findPastDueAfter(@Param("pending") Fee.PaymentStatus pending, @Param("now") LocalDateTime now,
+                                    @Param("afterDue") LocalDateTime afterDue, @Param("afterId") Long afterId,
+                                    Pageable page);
+
+    // Flips still-PENDING fees to OVERDUE; rows paid in the meantime are left alone
+    @Modifying
+    @Query("UPDATE Fee f SET f.status = :overdue, f.updatedAt = :now, f.version = f.version + 1 " +
+            "WHERE f.id IN :ids AND f.status = :pending")
+    int markOverdue(@Param("ids") List<Long> ids, @Param("pending") Fee.PaymentStatus pending,
+                    @Param("overdue") Fee.PaymentStatus overdue, @Param("now") LocalDateTime now);
+
+    // Overdue sweeper: locks those of ids still PENDING, so markOverdue then flips exactly these
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f.id FROM Fee f WHERE f.id IN :ids AND f.status = :pending")
+    List<Long> lockStillPending(@Param("ids") List<Long> ids, @Param("pending") Fee.PaymentStatus pending);
+
+    // Campus-wide totals, one row per status: [status, sum(amount)]
+    @Query("SELECT f.status, SUM(f.amount) FROM Fee f GROUP BY f.status")
+    List<Object[]> sumAmountGroupByStatus();
+
+    // Rollup ETL: rows changed after the (since, lastId) watermark, oldest first: [id, updatedAt, createdAt]
+    @Query("SELECT f.id, f.updatedAt, f.createdAt FROM Fee f " +
+            "WHERE f.updatedAt < :upTo AND (f.updatedAt > :since OR (f.updatedAt = :since AND f.id > :lastId)) " +
+            "ORDER BY f.updatedAt ASC, f.id ASC")
+    List<Object[]> findChangedSince(@Param("since") LocalDateTime since, @Param("lastId") Long lastId,
+                                    @Param("upTo") LocalDateTime upTo, Pageable page);
+
+    // Rollup ETL: fees raised in [from, to): [feeType, status, count, sum(amount)]
+    @Query("SELECT f.feeType, f.status, COUNT(f), SUM(f.amount) FROM Fee f " +
+            "WHERE f.createdAt >= :from AND f.createdAt < :to GROUP BY f.feeType, f.status")
+    List<Object[]> aggregateCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // At-risk scoring: overdue fees per student, including PENDING ones already past due: [studentId, count, amount]
+    @Query("SELECT f.studentId, COUNT(f), SUM(f.amount) FROM Fee f " +
+            "WHERE f.studentId BETWEEN :fromId AND :toId " +
+            "AND (f.status = 'OVERDUE' OR (f.status = 'PENDING' AND f.dueDate < :now)) GROUP BY f.studentId")
+    List<Object[]> summarizeOverdueByStudent(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                             @Param("now") LocalDateTime now);
+
+    // Reminders: due dates that still have PENDING fees ahead of them
+    @Query("SELECT DISTINCT f.dueDate FROM Fee f WHERE f.status = :pending AND f.dueDate > :now")
+    List<LocalDateTime> findUpcomingDueDates(@Param("pending") Fee.PaymentStatus pending, @Param("now") LocalDateTime now);
 }
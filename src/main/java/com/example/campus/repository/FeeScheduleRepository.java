@@ -0,0 +1,9 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.FeeSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FeeScheduleRepository extends JpaRepository<FeeSchedule, Long> {
+}
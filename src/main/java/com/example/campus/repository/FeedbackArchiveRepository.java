@@ -0,0 +1,20 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.FeedbackArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FeedbackArchiveRepository extends JpaRepository<FeedbackArchive, Long> {
+
+    // Admin history: newest first, strictly before the (beforeAt, beforeId) cursor
+    @Query("SELECT f FROM FeedbackArchive f WHERE f.createdAt < :beforeAt OR (f.createdAt = :beforeAt AND f.id < :beforeId) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FeedbackArchive> findHistoryPage(@Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") Long beforeId, Pageable page);
+}
@@ -1,11 +1,13 @@
 package com.example.campus.repository;
 
 import com.example.campus.entity.Feedback;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,7 +15,25 @@ public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
     List<Feedback> findByStudentId(Long studentId);
     List<Feedback> findByStatus(Feedback.Status status);
     List<Feedback> findByCategory(Feedback.Category category);
+    long countByStatus(Feedback.Status status);
     
     @Query("SELECT f FROM Feedback f WHERE f.status = 'PENDING' ORDER BY f.createdAt ASC")
     List<Feedback> findPendingFeedback();
+
+    // Rollup ETL: rows changed after the (since, lastId) watermark, oldest first: [id, updatedAt, createdAt]
+    @Query("SELECT f.id, f.updatedAt, f.createdAt FROM Feedback f " +
+            "WHERE f.updatedAt < :upTo AND (f.updatedAt > :since OR (f.updatedAt = :since AND f.id > :lastId)) " +
+            "ORDER BY f.updatedAt ASC, f.id ASC")
+    List<Object[]> findChangedSince(@Param("since") LocalDateTime since, @Param("lastId") Long lastId,
+                                    @Param("upTo") LocalDateTime upTo, Pageable page);
+
+    // Rollup ETL: feedback raised in [from, to): [category, status, count]
+    @Query("SELECT f.category, f.status, COUNT(f) FROM Feedback f " +
+            "WHERE f.createdAt >= :from AND f.createdAt < :to GROUP BY f.category, f.status")
+    List<Object[]> aggregateCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Admin history: newest first, strictly before the (beforeAt, beforeId) cursor
+    @Query("SELECT f FROM Feedback f WHERE f.createdAt < :beforeAt OR (f.createdAt = :beforeAt AND f.id < :beforeId) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Feedback> findHistoryPage(@Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") Long beforeId, Pageable page);
 }
@@ -3,9 +3,27 @@ package com.example.campus.repository;
 import com.example.campus.entity.Library;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface LibraryRepository extends JpaRepository<Library, Long> {
     List<Library> findByStudentId(Long studentId);
     boolean existsByIsbn(String isbn);
+
+    // Marks an issue returned exactly once; 0 rows means it was already returned
+    @Modifying
+    @Query("UPDATE Library l SET l.returnedAt = :now WHERE l.id = :id AND l.returnedAt IS NULL")
+    int markReturned(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Issues from before the catalogue that are still out: their books are copies the catalogue has to count
+    @Query("SELECT l.id FROM Library l WHERE l.isbn = :isbn AND l.returnedAt IS NULL AND l.copyId IS NULL")
+    List<Long> findOpenIdsWithoutCopy(@Param("isbn") String isbn);
+
+    @Modifying
+    @Query("UPDATE Library l SET l.bookTitleId = :titleId, l.copyId = :copyId WHERE l.id = :id AND l.copyId IS NULL")
+    int linkCopy(@Param("id") Long id, @Param("titleId") Long titleId, @Param("copyId") Long copyId);
 }
@@ -1,11 +1,13 @@
 package com.example.campus.repository;
 
 import com.example.campus.entity.Mark;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -19,4 +21,27 @@ public interface MarkRepository extends JpaRepository<Mark, Long> {
     
     @Query("SELECT AVG(m.marksObtained) FROM Mark m WHERE m.studentId = :studentId")
     Double calculateCGPA(@Param("studentId") Long studentId);
+
+    // Rollup ETL: rows changed after the (since, lastId) watermark, oldest first: [id, updatedAt, createdAt]
+    @Query("SELECT m.id, m.updatedAt, m.createdAt FROM Mark m " +
+            "WHERE m.updatedAt < :upTo AND (m.updatedAt > :since OR (m.updatedAt = :since AND m.id > :lastId)) " +
+            "ORDER BY m.updatedAt ASC, m.id ASC")
+    List<Object[]> findChangedSince(@Param("since") LocalDateTime since, @Param("lastId") Long lastId,
+                                    @Param("upTo") LocalDateTime upTo, Pageable page);
+
+    // Rollup ETL: marks entered in [from, to): [subject, examType, count, sum(marksObtained), sum(maxMarks)]
+    @Query("SELECT m.subject, m.examType, COUNT(m), SUM(m.marksObtained), SUM(m.maxMarks) FROM Mark m " +
+            "WHERE m.createdAt >= :from AND m.createdAt < :to GROUP BY m.subject, m.examType")
+    List<Object[]> aggregateCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // At-risk scoring: per-student marks split at recentFrom:
+    // [studentId, olderCount, olderPercentSum, recentCount, recentPercentSum]
+    @Query("SELECT m.studentId, " +
+            "SUM(CASE WHEN m.createdAt < :recentFrom THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN m.createdAt < :recentFrom THEN m.marksObtained * 100.0 / m.maxMarks ELSE 0 END), " +
+            "SUM(CASE WHEN m.createdAt >= :recentFrom THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN m.createdAt >= :recentFrom THEN m.marksObtained * 100.0 / m.maxMarks ELSE 0 END) " +
+            "FROM Mark m WHERE m.studentId BETWEEN :fromId AND :toId AND m.maxMarks > 0 GROUP BY m.studentId")
+    List<Object[]> summarizeByStudent(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                      @Param("recentFrom") LocalDateTime recentFrom);
 }
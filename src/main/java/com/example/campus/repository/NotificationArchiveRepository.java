@@ -0,0 +1,20 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.NotificationArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationArchiveRepository extends JpaRepository<NotificationArchive, Long> {
+
+    // Admin history: newest first, strictly before the (beforeAt, beforeId) cursor
+    @Query("SELECT n FROM NotificationArchive n WHERE n.createdAt < :beforeAt OR (n.createdAt = :beforeAt AND n.id < :beforeId) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationArchive> findHistoryPage(@Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") Long beforeId, Pageable page);
+}
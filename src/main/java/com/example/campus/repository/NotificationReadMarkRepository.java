@@ -0,0 +1,9 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.NotificationReadMark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationReadMarkRepository extends JpaRepository<NotificationReadMark, Long> {
+}
@@ -0,0 +1,26 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.NotificationRead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NotificationReadRepository extends JpaRepository<NotificationRead, Long> {
+
+    @Query("SELECT r.notificationId FROM NotificationRead r WHERE r.userId = :userId")
+    List<Long> findNotificationIdsByUserId(@Param("userId") Long userId);
+
+    // Out-of-order reads the user's high-water mark has now caught up with
+    @Modifying
+    @Query("DELETE FROM NotificationRead r WHERE r.userId = :userId AND r.notificationId <= :upTo")
+    int deleteUpTo(@Param("userId") Long userId, @Param("upTo") Long upTo);
+
+    @Modifying
+    @Query("DELETE FROM NotificationRead r WHERE r.notificationId = :notificationId")
+    int deleteByNotificationId(@Param("notificationId") Long notificationId);
+}
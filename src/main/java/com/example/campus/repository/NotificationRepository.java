@@ -1,11 +1,13 @@
 package com.example.campus.repository;
 
 import com.example.campus.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -15,8 +17,6 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     List<Notification> findByTargetUserId(Long targetUserId);
 
-    List<Notification> findByIsRead(Boolean isRead);
-
     // Notifications created by a specific user
     List<Notification> findByCreatedBy(String createdBy);
 
@@ -24,6 +24,35 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT n FROM Notification n WHERE n.targetRole = :role OR n.targetRole = com.example.campus.entity.Notification.TargetRole.ALL ORDER BY n.createdAt DESC")
     List<Notification> findByTargetRoleOrAll(@Param("role") Notification.TargetRole role);
 
+    // Notifications for a role OR ALL, minus the ones addressed to other users
+    @Query("SELECT n FROM Notification n " +
+            "WHERE (n.targetRole = :role OR n.targetRole = com.example.campus.entity.Notification.TargetRole.ALL) " +
+            "AND (n.targetUserId IS NULL OR n.targetUserId = :userId) ORDER BY n.createdAt DESC")
+    List<Notification> findVisibleTo(@Param("role") Notification.TargetRole role, @Param("userId") Long userId);
+
+    // Feed page of broadcast notifications for one role, newest first, strictly before the (beforeAt, beforeId) cursor
+    @Query("SELECT n FROM Notification n WHERE n.targetRole = :role AND n.targetUserId IS NULL " +
+            "AND (n.createdAt < :beforeAt OR (n.createdAt = :beforeAt AND n.id < :beforeId)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findBroadcastPage(@Param("role") Notification.TargetRole role,
+                                         @Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") Long beforeId,
+                                         Pageable page);
+
+    // Feed page of notifications addressed to one user
+    @Query("SELECT n FROM Notification n WHERE n.targetRole = :role AND n.targetUserId = :userId " +
+            "AND (n.createdAt < :beforeAt OR (n.createdAt = :beforeAt AND n.id < :beforeId)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPersonalPage(@Param("role") Notification.TargetRole role, @Param("userId") Long userId,
+                                        @Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") Long beforeId,
+                                        Pageable page);
+
+    // Ids of the broadcasts a role sees, ascending; backs the in-memory unread counters
+    @Query("SELECT n.id FROM Notification n WHERE n.targetUserId IS NULL " +
+            "AND (n.targetRole = :role OR n.targetRole = com.example.campus.entity.Notification.TargetRole.ALL) ORDER BY n.id")
+    List<Long> findBroadcastIdsVisibleTo(@Param("role") Notification.TargetRole role);
+
+    @Query("SELECT n.id FROM Notification n WHERE n.targetUserId = :userId AND n.targetRole = :role ORDER BY n.id")
+    List<Long> findPersonalIds(@Param("role") Notification.TargetRole role, @Param("userId") Long userId);
 
     // Fetch notifications created by a specific user OR targeted to a specific role (e.g., STUDENT)
     @Query("SELECT n FROM Notification n " +
@@ -39,5 +68,8 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByCreatedByOrTargetRoleIn(@Param("createdBy") String createdBy,
                                                      @Param("roles") List<Notification.TargetRole> roles);
 
+    // Admin history: newest first, strictly before the (beforeAt, beforeId) cursor
+    @Query("SELECT n FROM Notification n WHERE n.createdAt < :beforeAt OR (n.createdAt = :beforeAt AND n.id < :beforeId) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findHistoryPage(@Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") Long beforeId, Pageable page);
 }
-
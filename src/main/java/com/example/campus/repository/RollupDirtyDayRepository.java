@@ -0,0 +1,22 @@
+package com.example.campus.repository;
+
+import com.example.campus.entity.DailyRollup;
+import com.example.campus.entity.RollupDirtyDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RollupDirtyDayRepository extends JpaRepository<RollupDirtyDay, Long> {
+
+    List<RollupDirtyDay> findBySourceOrderByDay(DailyRollup.Source source);
+
+    // Clears a mark unless the day was marked again after it was read
+    @Modifying
+    @Query("DELETE FROM RollupDirtyDay d WHERE d.id = :id AND d.generation = :generation")
+    int deleteIfUnchanged(@Param("id") Long id, @Param("generation") Long generation);
+}
@@ -10,7 +10,9 @@ import java.util.Optional;
 public interface SubjectRepository extends JpaRepository<Subject, Long> {
     Optional<Subject> findBySubjectCode(String subjectCode);
     List<Subject> findByDepartment(String department);
+    List<Subject> findBySubjectNameOrSubjectCode(String subjectName, String subjectCode);
     List<Subject> findBySemester(String semester);
+    List<Subject> findByDepartmentAndSemester(String department, String semester);
     List<Subject> findByAcademicYear(String academicYear);
     boolean existsBySubjectCode(String subjectCode);
 }
@@ -16,6 +16,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+	private static final String STREAM_PATH = "/api/notifications/stream";
+
 	private final JwtService jwtService;
 	private final UserDetailsService userDetailsService;
 
@@ -28,8 +30,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
 		String authHeader = request.getHeader("Authorization");
+		String jwt = null;
 		if (authHeader != null && authHeader.startsWith("Bearer ")) {
-			String jwt = authHeader.substring(7);
+			jwt = authHeader.substring(7);
+		} else if (STREAM_PATH.equals(request.getServletPath())) {
+			// EventSource cannot send headers, so the notification stream also accepts ?access_token=
+			jwt = request.getParameter("access_token");
+		}
+		if (jwt != null && !jwt.isBlank()) {
 			String username = null;
 			try {
 				username = jwtService.extractUsername(jwt);
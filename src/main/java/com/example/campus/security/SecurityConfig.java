@@ -1,5 +1,6 @@
 package com.example.campus.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -35,6 +36,9 @@ public class SecurityConfig {
             
             // Authorization rules
             .authorizeHttpRequests(auth -> auth
+                // Async re-dispatches of an already authorised request (SSE streams) carry no token
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints
                 .requestMatchers("/", "/index.html", "/css/**", "/js/**", "/images/**").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/auth/signup", "/api/auth/login").permitAll()
@@ -78,6 +82,8 @@ public class SecurityConfig {
         config.addAllowedOriginPattern("*"); // allow all origins
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        config.addExposedHeader("X-Next-Cursor"); // feed pagination cursor
+        config.addExposedHeader("ETag"); // conditional GETs on cacheable listings
         config.setAllowCredentials(true);
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
@@ -0,0 +1,92 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Fee;
+import com.example.campus.entity.Feedback;
+import com.example.campus.repository.AssignmentRepository;
+import com.example.campus.repository.FeeRepository;
+import com.example.campus.repository.FeedbackRepository;
+import com.example.campus.repository.NotificationRepository;
+import com.example.campus.user.Role;
+import com.example.campus.user.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Aggregate numbers for the admin dashboard. Every value is a single COUNT/SUM
+ * query and is kept for a few seconds, so a burst of dashboard loads costs one
+ * round of queries.
+ */
+@Service
+public class AdminStatsService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private FeeRepository feeRepository;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private final TtlCache<String, Object> cache;
+
+    public AdminStatsService(@Value("${campus.admin.stats-ttl:10s}") Duration ttl) {
+        this.cache = new TtlCache<>(ttl);
+    }
+
+    public long countUsers(Role role) {
+        return cached("users:" + role, () -> userRepository.countByRole(role));
+    }
+
+    public long countAssignments() {
+        return cached("assignments", () -> assignmentRepository.count());
+    }
+
+    public long countPendingFeedback() {
+        return cached("feedback:pending", () -> feedbackRepository.countByStatus(Feedback.Status.PENDING));
+    }
+
+    public long countNotifications() {
+        return cached("notifications", () -> notificationRepository.count());
+    }
+
+    public BigDecimal sumFees(Fee.PaymentStatus status) {
+        return feeTotals().getOrDefault(status, BigDecimal.ZERO);
+    }
+
+    public Map<Fee.PaymentStatus, BigDecimal> feeTotals() {
+        return cached("fees:totals", () -> {
+            Map<Fee.PaymentStatus, BigDecimal> totals = new EnumMap<>(Fee.PaymentStatus.class);
+            List<Object[]> rows = feeRepository.sumAmountGroupByStatus();
+            for (Object[] row : rows) {
+                if (row[0] != null && row[1] != null) {
+                    totals.put((Fee.PaymentStatus) row[0], (BigDecimal) row[1]);
+                }
+            }
+            return totals;
+        });
+    }
+
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String key, Supplier<T> loader) {
+        return (T) cache.get(key, loader::get);
+    }
+}
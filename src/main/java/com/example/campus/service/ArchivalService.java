@@ -0,0 +1,249 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.DailyRollup;
+import com.example.campus.entity.Notification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves aged notifications and settled feedback into their archive tables.
+ *
+ * The oldest rows are picked a small batch at a time in (created_at, id)
+ * order; each batch is copied and deleted in its own short transaction and
+ * the job sleeps between batches so replicas can keep up. Only RESOLVED and
+ * CLOSED feedback is archived, open tickets stay in the hot table whatever
+ * their age; feedback ages from its last change (updated_at), so a ticket
+ * answered yesterday stays visible however long ago it was opened.
+ */
+@Service
+public class ArchivalService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivalService.class);
+
+    private static final String NOTIFICATION_COLUMNS =
+            "id, title, message, created_by, target_role, target_user_id, is_read, created_at, updated_at";
+
+    private static final String FEEDBACK_COLUMNS =
+            "id, student_id, title, message, category, status, admin_response, responded_by, responded_at, created_at, updated_at";
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private NotificationFeedCache feedCache;
+
+    @Autowired
+    private ReadReceiptService readReceiptService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private RollupEtlService rollupEtlService;
+
+    @Value("${campus.archive.notifications-retention:180d}")
+    private Duration notificationsRetention;
+
+    @Value("${campus.archive.feedback-retention:365d}")
+    private Duration feedbackRetention;
+
+    @Value("${campus.archive.batch-size:500}")
+    private int batchSize;
+
+    // Sleep between batches to keep replication lag down
+    @Value("${campus.archive.pause:200ms}")
+    private Duration pause;
+
+    // Upper bound per table per run; whatever is left is picked up next run
+    @Value("${campus.archive.max-batches:1000}")
+    private int maxBatches;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock running = new ReentrantLock();
+
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public ArchivalService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${campus.archive.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        try {
+            run();
+        } catch (Exception e) {
+            log.error("Archival run failed", e);
+        }
+    }
+
+    /** Runs one archival pass. Returns an empty map if a pass is already in progress. */
+    public Map<String, Object> run() {
+        if (!running.tryLock()) {
+            return Map.of();
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+
+            long notifications = archiveNotifications(now.minus(notificationsRetention), now);
+            long feedback = archiveFeedback(now.minus(feedbackRetention), now);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("startedAt", now.toString());
+            report.put("notificationsArchived", notifications);
+            report.put("feedbackArchived", feedback);
+            report.put("durationMillis", (System.nanoTime() - started) / 1_000_000);
+            lastRun = report;
+
+            if (notifications + feedback > 0) {
+                log.info("Archival run: {}", report);
+            }
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Archival run interrupted", e);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>(lastRun);
+        status.put("running", running.isLocked());
+        return status;
+    }
+
+    private long archiveNotifications(LocalDateTime cutoff, LocalDateTime now) throws InterruptedException {
+        long moved = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("cutoff", Timestamp.valueOf(cutoff))
+                    .addValue("limit", batchSize);
+            List<Object[]> rows = namedJdbcTemplate.query(
+                    "SELECT id, target_role, target_user_id, title, message, created_at FROM notifications " +
+                    "WHERE created_at < :cutoff ORDER BY created_at, id LIMIT :limit",
+                    params, (rs, i) -> new Object[]{
+                            rs.getLong(1), rs.getString(2), rs.getObject(3) != null ? rs.getLong(3) : null,
+                            rs.getString(4), rs.getString(5), rs.getTimestamp(6)});
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            List<Long> ids = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                ids.add((Long) row[0]);
+            }
+            MapSqlParameterSource move = new MapSqlParameterSource()
+                    .addValue("ids", ids)
+                    .addValue("archivedAt", Timestamp.valueOf(now));
+
+            // Same lock as every other notification write, so cached feeds and unread counts drop the rows atomically
+            Integer deleted = feedCache.write(() -> {
+                Integer count = transactionTemplate.execute(status -> {
+                    namedJdbcTemplate.update("INSERT INTO notifications_archive (" + NOTIFICATION_COLUMNS + ", archived_at) " +
+                            "SELECT " + NOTIFICATION_COLUMNS + ", :archivedAt FROM notifications WHERE id IN (:ids)", move);
+                    namedJdbcTemplate.update("DELETE FROM notification_reads WHERE notification_id IN (:ids)", move);
+                    return namedJdbcTemplate.update("DELETE FROM notifications WHERE id IN (:ids)", move);
+                });
+                for (Object[] row : rows) {
+                    NotificationFeedCache.Audience audience = new NotificationFeedCache.Audience(
+                            row[1] != null ? Notification.TargetRole.valueOf((String) row[1]) : null, (Long) row[2]);
+                    feedCache.onDeleted(audience, (Long) row[0]);
+                    readReceiptService.onArchived(audience, (Long) row[0]);
+                    searchIndexService.indexArchived(SearchIndexService.Type.NOTIFICATION, (Long) row[0],
+                            (String) row[3], (String) row[4], toLocalDateTime((Timestamp) row[5]));
+                }
+                return count;
+            });
+            moved += deleted != null ? deleted : 0;
+
+            if (rows.size() < batchSize) {
+                break;
+            }
+            Thread.sleep(pause.toMillis());
+        }
+        return moved;
+    }
+
+    private long archiveFeedback(LocalDateTime cutoff, LocalDateTime now) throws InterruptedException {
+        long moved = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("cutoff", Timestamp.valueOf(cutoff))
+                    .addValue("limit", batchSize);
+            List<Long> candidates = namedJdbcTemplate.queryForList(
+                    "SELECT id FROM feedback " +
+                    "WHERE updated_at < :cutoff AND status IN ('RESOLVED', 'CLOSED') ORDER BY updated_at, id LIMIT :limit",
+                    params, Long.class);
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            MapSqlParameterSource lock = new MapSqlParameterSource()
+                    .addValue("ids", candidates)
+                    .addValue("cutoff", Timestamp.valueOf(cutoff));
+            // Candidates still settled are locked and moved as one set; a ticket reopened since the SELECT stays,
+            // and one reopened now waits for the move to commit
+            List<Object[]> archived = transactionTemplate.execute(status -> {
+                List<Object[]> rows = namedJdbcTemplate.query(
+                        "SELECT id, title, message, admin_response, created_at FROM feedback " +
+                        "WHERE id IN (:ids) AND status IN ('RESOLVED', 'CLOSED') AND updated_at < :cutoff FOR UPDATE",
+                        lock, (rs, i) -> new Object[]{
+                                rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getTimestamp(5)});
+                if (rows.isEmpty()) {
+                    return rows;
+                }
+
+                List<Long> ids = new ArrayList<>(rows.size());
+                Set<LocalDate> days = new HashSet<>();
+                for (Object[] row : rows) {
+                    ids.add((Long) row[0]);
+                    if (row[4] != null) {
+                        days.add(((Timestamp) row[4]).toLocalDateTime().toLocalDate());
+                    }
+                }
+                MapSqlParameterSource move = new MapSqlParameterSource()
+                        .addValue("ids", ids)
+                        .addValue("archivedAt", Timestamp.valueOf(now));
+                namedJdbcTemplate.update("INSERT INTO feedback_archive (" + FEEDBACK_COLUMNS + ", archived_at) " +
+                        "SELECT " + FEEDBACK_COLUMNS + ", :archivedAt FROM feedback WHERE id IN (:ids)", move);
+                namedJdbcTemplate.update("DELETE FROM feedback WHERE id IN (:ids)", move);
+                // Feedback rollups count tickets by the day they were opened
+                rollupEtlService.markDirty(DailyRollup.Source.FEEDBACK, days);
+                return rows;
+            });
+            if (archived != null) {
+                moved += archived.size();
+                for (Object[] row : archived) {
+                    searchIndexService.indexArchived(SearchIndexService.Type.FEEDBACK, (Long) row[0], (String) row[1],
+                            SearchIndexService.feedbackBody((String) row[2], (String) row[3]), toLocalDateTime((Timestamp) row[4]));
+                }
+            }
+
+            if (candidates.size() < batchSize) {
+                break;
+            }
+            Thread.sleep(pause.toMillis());
+        }
+        return moved;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Feedback;
+import com.example.campus.entity.FeedbackArchive;
+import com.example.campus.entity.Notification;
+import com.example.campus.entity.NotificationArchive;
+import com.example.campus.repository.FeedbackArchiveRepository;
+import com.example.campus.repository.FeedbackRepository;
+import com.example.campus.repository.NotificationArchiveRepository;
+import com.example.campus.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Admin listings of feedback and notifications that reach into the archive
+ * tables. The live and archived tables are each read with a keyset page on
+ * (created_at, id), newest first, and the two streams are merged here into
+ * one ordering; archived rows keep their original id, so the cursor is
+ * unambiguous across both. A page costs two short index scans however large
+ * the archive grows.
+ */
+@Service
+public class ArchiveHistoryService {
+
+    public static final int MAX_LIMIT = 200;
+
+    public record HistoryPage(List<Map<String, Object>> items, String nextCursor) {
+    }
+
+    // Newest first, ties broken by id, matching the ORDER BY of the page queries
+    private static final Comparator<Map<String, Object>> NEWEST_FIRST = Comparator
+            .comparing((Map<String, Object> row) -> (LocalDateTime) row.get("createdAt"), Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(row -> (Long) row.get("id"), Comparator.reverseOrder());
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private FeedbackArchiveRepository feedbackArchiveRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationArchiveRepository notificationArchiveRepository;
+
+    /** Live and archived feedback, newest first, strictly older than {@code before} (null for the first page). */
+    public HistoryPage feedback(String before, int limit) {
+        Cursor cursor = Cursor.parse(before);
+        PageRequest page = PageRequest.of(0, size(limit) + 1);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Feedback f : feedbackRepository.findHistoryPage(cursor.at(), cursor.id(), page)) {
+            rows.add(feedbackRow(f.getId(), f.getStudentId(), f.getTitle(), f.getMessage(), f.getCategory(), f.getStatus(),
+                    f.getAdminResponse(), f.getRespondedBy(), f.getRespondedAt(), f.getCreatedAt(), f.getUpdatedAt(), false, null));
+        }
+        for (FeedbackArchive f : feedbackArchiveRepository.findHistoryPage(cursor.at(), cursor.id(), page)) {
+            rows.add(feedbackRow(f.getId(), f.getStudentId(), f.getTitle(), f.getMessage(), f.getCategory(), f.getStatus(),
+                    f.getAdminResponse(), f.getRespondedBy(), f.getRespondedAt(), f.getCreatedAt(), f.getUpdatedAt(),
+                    true, f.getArchivedAt()));
+        }
+        return merge(rows, size(limit));
+    }
+
+    /** Live and archived notifications, newest first, strictly older than {@code before} (null for the first page). */
+    public HistoryPage notifications(String before, int limit) {
+        Cursor cursor = Cursor.parse(before);
+        PageRequest page = PageRequest.of(0, size(limit) + 1);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Notification n : notificationRepository.findHistoryPage(cursor.at(), cursor.id(), page)) {
+            rows.add(notificationRow(n.getId(), n.getTitle(), n.getMessage(), n.getCreatedBy(), n.getTargetRole(),
+                    n.getTargetUserId(), n.getCreatedAt(), false, null));
+        }
+        for (NotificationArchive n : notificationArchiveRepository.findHistoryPage(cursor.at(), cursor.id(), page)) {
+            rows.add(notificationRow(n.getId(), n.getTitle(), n.getMessage(), n.getCreatedBy(), n.getTargetRole(),
+                    n.getTargetUserId(), n.getCreatedAt(), true, n.getArchivedAt()));
+        }
+        return merge(rows, size(limit));
+    }
+
+    private static HistoryPage merge(List<Map<String, Object>> rows, int size) {
+        rows.sort(NEWEST_FIRST);
+        if (rows.size() <= size) {
+            return new HistoryPage(rows, null);
+        }
+        List<Map<String, Object>> items = new ArrayList<>(rows.subList(0, size));
+        Map<String, Object> last = items.get(size - 1);
+        return new HistoryPage(items, last.get("createdAt") + "," + last.get("id"));
+    }
+
+    private static int size(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_LIMIT);
+    }
+
+    private static Map<String, Object> feedbackRow(Long id, Long studentId, String title, String message,
+                                                   Feedback.Category category, Feedback.Status status, String adminResponse,
+                                                   String respondedBy, LocalDateTime respondedAt, LocalDateTime createdAt,
+                                                   LocalDateTime updatedAt, boolean archived, LocalDateTime archivedAt) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("studentId", studentId);
+        row.put("title", title);
+        row.put("message", message);
+        row.put("category", category);
+        row.put("status", status);
+        row.put("adminResponse", adminResponse);
+        row.put("respondedBy", respondedBy);
+        row.put("respondedAt", respondedAt);
+        row.put("createdAt", createdAt);
+        row.put("updatedAt", updatedAt);
+        row.put("archived", archived);
+        row.put("archivedAt", archivedAt);
+        return row;
+    }
+
+    private static Map<String, Object> notificationRow(Long id, String title, String message, String createdBy,
+                                                       Notification.TargetRole targetRole, Long targetUserId,
+                                                       LocalDateTime createdAt, boolean archived,
+                                                       LocalDateTime archivedAt) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("title", title);
+        row.put("message", message);
+        row.put("createdBy", createdBy);
+        row.put("targetRole", targetRole);
+        row.put("targetUserId", targetUserId);
+        row.put("createdAt", createdAt);
+        row.put("archived", archived);
+        row.put("archivedAt", archivedAt);
+        return row;
+    }
+
+    private record Cursor(LocalDateTime at, long id) {
+        static Cursor parse(String before) {
+            if (before == null || before.isBlank()) {
+                return new Cursor(NotificationFeedService.END_OF_TIME, Long.MAX_VALUE);
+            }
+            int comma = before.lastIndexOf(',');
+            try {
+                return new Cursor(LocalDateTime.parse(before.substring(0, comma).trim()),
+                        Long.parseLong(before.substring(comma + 1).trim()));
+            } catch (StringIndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor, expected <createdAt>,<id>");
+            }
+        }
+    }
+}
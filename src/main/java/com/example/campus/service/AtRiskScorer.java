@@ -0,0 +1,198 @@
+package com.example.campus.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores students for academic risk from compact per-student feature vectors.
+ *
+ * Features are held column-wise in primitive arrays indexed by the student's
+ * position in {@link #studentIds}, so 50k students fit in a few megabytes and
+ * scoring is a tight loop split across a fork/join pool.
+ */
+public class AtRiskScorer {
+
+    // Below this attendance rate a student starts accumulating risk
+    static final double ATTENDANCE_TARGET = 0.75;
+    // Average percentage below which marks count as weak
+    static final double PASS_PERCENTAGE = 50.0;
+    // A drop of this many percentage points between older and recent marks gives the full trend penalty
+    static final double FULL_DROP = 20.0;
+
+    static final double ATTENDANCE_WEIGHT = 35.0;
+    static final double MARKS_WEIGHT = 20.0;
+    static final double TREND_WEIGHT = 15.0;
+    static final double FEES_WEIGHT = 15.0;
+    static final double ASSIGNMENTS_WEIGHT = 15.0;
+
+    private static final int SEQUENTIAL_THRESHOLD = 2048;
+
+    final long[] studentIds;
+    final int[] attendancePresent;
+    final int[] attendanceTotal;
+    final int[] olderMarkCount;
+    final double[] olderMarkPctSum;
+    final int[] recentMarkCount;
+    final double[] recentMarkPctSum;
+    final int[] overdueFees;
+    final double[] overdueAmount;
+    final int[] dueAssignments;
+    final int[] submitted;
+
+    /**
+     * @param studentIds ascending student ids; array positions are the feature indexes
+     */
+    public AtRiskScorer(long[] studentIds) {
+        int n = studentIds.length;
+        this.studentIds = studentIds;
+        this.attendancePresent = new int[n];
+        this.attendanceTotal = new int[n];
+        this.olderMarkCount = new int[n];
+        this.olderMarkPctSum = new double[n];
+        this.recentMarkCount = new int[n];
+        this.recentMarkPctSum = new double[n];
+        this.overdueFees = new int[n];
+        this.overdueAmount = new double[n];
+        this.dueAssignments = new int[n];
+        this.submitted = new int[n];
+    }
+
+    public int size() {
+        return studentIds.length;
+    }
+
+    /** Feature index of a student, or -1 when the id is not part of this run. */
+    public int indexOf(long studentId) {
+        int i = Arrays.binarySearch(studentIds, studentId);
+        return i >= 0 ? i : -1;
+    }
+
+    public void addAttendance(int i, long present, long total) {
+        attendancePresent[i] += (int) present;
+        attendanceTotal[i] += (int) total;
+    }
+
+    public void addMarks(int i, long olderCount, double olderPctSum, long recentCount, double recentPctSum) {
+        olderMarkCount[i] += (int) olderCount;
+        olderMarkPctSum[i] += olderPctSum;
+        recentMarkCount[i] += (int) recentCount;
+        recentMarkPctSum[i] += recentPctSum;
+    }
+
+    public void addOverdueFees(int i, long count, double amount) {
+        overdueFees[i] += (int) count;
+        overdueAmount[i] += amount;
+    }
+
+    /** Assignments past due in the student's own subjects, and how many of those they submitted. */
+    public void addAssignments(int i, long due, long submittedCount) {
+        dueAssignments[i] += (int) due;
+        submitted[i] += (int) submittedCount;
+    }
+
+    public double attendanceRate(int i) {
+        return attendanceTotal[i] > 0 ? (double) attendancePresent[i] / attendanceTotal[i] : 1.0;
+    }
+
+    public double averageMarkPercentage(int i) {
+        int count = olderMarkCount[i] + recentMarkCount[i];
+        return count > 0 ? (olderMarkPctSum[i] + recentMarkPctSum[i]) / count : 0.0;
+    }
+
+    /** Recent average minus older average in percentage points; 0 when either side is missing. */
+    public double markTrend(int i) {
+        if (olderMarkCount[i] == 0 || recentMarkCount[i] == 0) {
+            return 0.0;
+        }
+        return recentMarkPctSum[i] / recentMarkCount[i] - olderMarkPctSum[i] / olderMarkCount[i];
+    }
+
+    public int missedAssignments(int i) {
+        return Math.max(0, dueAssignments[i] - submitted[i]);
+    }
+
+    /** Risk score between 0 and 100 for every student, computed on the given pool. */
+    public double[] score(ForkJoinPool pool) {
+        double[] scores = new double[size()];
+        pool.invoke(new ScoreTask(scores, 0, scores.length));
+        return scores;
+    }
+
+    /**
+     * Student indexes ordered from highest to lowest score, ties broken by
+     * student id. Scores are quantised to 1e-6 and packed with the index into
+     * one long so the sort runs over primitives.
+     */
+    public static int[] rank(double[] scores) {
+        long ceiling = Math.round(100.0 * 1_000_000);
+        long[] keys = new long[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            long quantised = Math.round(Math.max(0.0, Math.min(100.0, scores[i])) * 1_000_000);
+            keys[i] = ((ceiling - quantised) << 32) | i;
+        }
+        Arrays.parallelSort(keys);
+        int[] ranked = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            ranked[i] = (int) keys[i];
+        }
+        return ranked;
+    }
+
+    double scoreOf(int i) {
+        double score = 0.0;
+
+        if (attendanceTotal[i] > 0) {
+            double rate = attendanceRate(i);
+            if (rate < ATTENDANCE_TARGET) {
+                score += ATTENDANCE_WEIGHT * (ATTENDANCE_TARGET - rate) / ATTENDANCE_TARGET;
+            }
+        }
+
+        if (olderMarkCount[i] + recentMarkCount[i] > 0) {
+            double average = averageMarkPercentage(i);
+            if (average < PASS_PERCENTAGE) {
+                score += MARKS_WEIGHT * (PASS_PERCENTAGE - average) / PASS_PERCENTAGE;
+            }
+            double drop = -markTrend(i);
+            if (drop > 0) {
+                score += TREND_WEIGHT * Math.min(1.0, drop / FULL_DROP);
+            }
+        }
+
+        if (overdueFees[i] > 0) {
+            // First overdue fee counts for most of the weight, more of them top it up
+            score += FEES_WEIGHT * Math.min(1.0, 0.6 + 0.2 * (overdueFees[i] - 1));
+        }
+
+        if (dueAssignments[i] > 0) {
+            score += ASSIGNMENTS_WEIGHT * missedAssignments(i) / dueAssignments[i];
+        }
+
+        return Math.min(100.0, score);
+    }
+
+    private final class ScoreTask extends RecursiveAction {
+        private final double[] scores;
+        private final int from;
+        private final int to;
+
+        ScoreTask(double[] scores, int from, int to) {
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    scores[i] = scoreOf(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoreTask(scores, from, mid), new ScoreTask(scores, mid, to));
+        }
+    }
+}
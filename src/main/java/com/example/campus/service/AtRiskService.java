@@ -0,0 +1,219 @@
+package com.example.campus.service;
+
+import com.example.campus.repository.*;
+import com.example.campus.user.Role;
+import com.example.campus.user.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Weekly at-risk scoring batch.
+ *
+ * Attendance, marks, fees and submissions are read as per-student aggregates
+ * over blocks of student ids, so the database does the grouping and the
+ * service never holds raw rows. The aggregates land in an {@link AtRiskScorer},
+ * are scored on a fork/join pool and the ranked list replaces the contents of
+ * at_risk_scores.
+ */
+@Service
+public class AtRiskService {
+
+    private static final Logger log = LoggerFactory.getLogger(AtRiskService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO at_risk_scores (student_id, risk_rank, score, attendance_rate, " +
+            "average_mark_pct, mark_trend, overdue_fees, overdue_amount, missed_assignments, computed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private MarkRepository markRepository;
+
+    @Autowired
+    private FeeRepository feeRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Student ids loaded and aggregated per round trip
+    @Value("${campus.at-risk.chunk-size:5000}")
+    private int chunkSize;
+
+    // Marks entered within this many days count as "recent" for the trend
+    @Value("${campus.at-risk.recent-days:30}")
+    private int recentDays;
+
+    // Students scoring below this are not written to the result table
+    @Value("${campus.at-risk.min-score:1.0}")
+    private double minScore;
+
+    @Value("${campus.at-risk.parallelism:0}")
+    private int parallelism;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock running = new ReentrantLock();
+
+    public AtRiskService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${campus.at-risk.cron:0 0 2 * * MON}")
+    public void scheduledRun() {
+        try {
+            run();
+        } catch (Exception e) {
+            log.error("At-risk scoring run failed", e);
+        }
+    }
+
+    /** Recomputes the ranking. Returns an empty map if a run is already in progress. */
+    public Map<String, Object> run() {
+        if (!running.tryLock()) {
+            return Map.of();
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+
+            AtRiskScorer scorer = new AtRiskScorer(loadStudentIds());
+            loadFeatures(scorer, now);
+            long loaded = System.nanoTime();
+
+            ForkJoinPool pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+            double[] scores;
+            try {
+                scores = scorer.score(pool);
+            } finally {
+                if (pool != ForkJoinPool.commonPool()) {
+                    pool.shutdown();
+                }
+            }
+            int[] ranked = AtRiskScorer.rank(scores);
+            long scored = System.nanoTime();
+
+            int written = writeResults(scorer, scores, ranked, now);
+            long finished = System.nanoTime();
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("students", scorer.size());
+            report.put("written", written);
+            report.put("loadMillis", (loaded - started) / 1_000_000);
+            report.put("scoreMillis", (scored - loaded) / 1_000_000);
+            report.put("writeMillis", (finished - scored) / 1_000_000);
+            log.info("At-risk scoring finished: {}", report);
+            return report;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private long[] loadStudentIds() {
+        long[] ids = new long[1024];
+        int size = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> page = userRepository.findIdsByRoleAfter(Role.STUDENT, afterId, PageRequest.of(0, chunkSize));
+            for (Long id : page) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size++] = id;
+            }
+            if (page.size() < chunkSize) {
+                return Arrays.copyOf(ids, size);
+            }
+            afterId = page.get(page.size() - 1);
+        }
+    }
+
+    private void loadFeatures(AtRiskScorer scorer, LocalDateTime now) {
+        LocalDateTime recentFrom = now.minusDays(recentDays);
+
+        for (int start = 0; start < scorer.size(); start += chunkSize) {
+            Long fromId = scorer.studentIds[start];
+            Long toId = scorer.studentIds[Math.min(start + chunkSize, scorer.size()) - 1];
+
+            for (Object[] row : attendanceRepository.summarizeByStudent(fromId, toId)) {
+                int i = scorer.indexOf(asLong(row[0]));
+                if (i >= 0) {
+                    scorer.addAttendance(i, asLong(row[1]), asLong(row[2]));
+                }
+            }
+            for (Object[] row : markRepository.summarizeByStudent(fromId, toId, recentFrom)) {
+                int i = scorer.indexOf(asLong(row[0]));
+                if (i >= 0) {
+                    scorer.addMarks(i, asLong(row[1]), asDouble(row[2]), asLong(row[3]), asDouble(row[4]));
+                }
+            }
+            for (Object[] row : feeRepository.summarizeOverdueByStudent(fromId, toId, now)) {
+                int i = scorer.indexOf(asLong(row[0]));
+                if (i >= 0) {
+                    scorer.addOverdueFees(i, asLong(row[1]), asDouble(row[2]));
+                }
+            }
+            for (Object[] row : assignmentRepository.countDueAssignmentsByStudent(fromId, toId, now)) {
+                int i = scorer.indexOf(asLong(row[0]));
+                if (i >= 0) {
+                    scorer.addAssignments(i, asLong(row[1]), asLong(row[2]));
+                }
+            }
+        }
+    }
+
+    private int writeResults(AtRiskScorer scorer, double[] scores, int[] ranked, LocalDateTime now) {
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp computedAt = Timestamp.valueOf(now);
+        for (int rank = 0; rank < ranked.length; rank++) {
+            int i = ranked[rank];
+            if (scores[i] < minScore) {
+                break; // ranked descending, everything after is lower
+            }
+            rows.add(new Object[]{
+                    scorer.studentIds[i], rank + 1, round(scores[i]), round(scorer.attendanceRate(i)),
+                    round(scorer.averageMarkPercentage(i)), round(scorer.markTrend(i)), scorer.overdueFees[i],
+                    round(scorer.overdueAmount[i]), scorer.missedAssignments(i), computedAt
+            });
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM at_risk_scores");
+            for (int from = 0; from < rows.size(); from += chunkSize) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows.subList(from, Math.min(from + chunkSize, rows.size())));
+            }
+        });
+        return rows.size();
+    }
+
+    private static long asLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private static double asDouble(Object value) {
+        return value == null ? 0.0 : ((Number) value).doubleValue();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,397 @@
+package com.example.campus.service;
+
+import java.util.*;
+
+/**
+ * Trigram index over library titles for as-you-type, typo-tolerant search.
+ *
+ * Every word of a title's title, author and ISBN is padded as {@code ^^word$}
+ * and cut into trigrams; the last query word is left open at the end, so it
+ * also matches longer words it is a prefix of. A title is a hit when it holds
+ * at least {@code minMatch} of the query's trigrams, which lets one or two
+ * wrong letters through. Hits rank by the share of query trigrams matched,
+ * then by how little else the title contains.
+ *
+ * Kept small on purpose: posting lists are delta-encoded varints in one byte
+ * array per trigram, the trigram dictionary is an open-addressing table over
+ * packed long keys, and per title only the id and trigram count are held.
+ * Search scratch counters come from a small shared pool rather than one per
+ * calling thread. Titles are appended; a change re-appends and tombstones the
+ * old entry. Not thread-safe for writes; callers synchronise, and concurrent
+ * searches are fine.
+ */
+public class CatalogSearchIndex {
+
+    public record Hit(long id, double score) {}
+
+    public record Page(int total, List<Hit> hits) {}
+
+    // Longer queries are cut down to this many trigrams
+    private static final int MAX_QUERY_TRIGRAMS = 64;
+    // Deepest result reachable by paging
+    public static final int MAX_WINDOW = 1000;
+
+    // Idle counter arrays kept for reuse; concurrent searches beyond this allocate and drop theirs
+    private static final int MAX_POOLED_COUNTERS = 4;
+
+    private static final char START = '\u0001';
+    private static final char END = '\u0002';
+
+    private final double minMatch;
+
+    // Titles, by ordinal in insertion order
+    private long[] ids = new long[1024];
+    private short[] trigramCounts = new short[1024];
+    private final BitSet deleted = new BitSet();
+    private int docCount;
+    private int live;
+    private boolean idsAscending = true;
+
+    // Trigram dictionary: packed trigram -> posting list number
+    private long[] keys = new long[1 << 12];
+    private int[] lists = new int[1 << 12];
+    private int trigramCount;
+
+    // Posting lists: varint gaps between ordinals
+    private byte[][] postings = new byte[1 << 11][];
+    private int[] postingLengths = new int[1 << 11];
+    private int[] postingLast = new int[1 << 11];
+
+    private final ArrayDeque<short[]> counters = new ArrayDeque<>();
+
+    public CatalogSearchIndex(double minMatch) {
+        this.minMatch = minMatch;
+    }
+
+    public int size() {
+        return live;
+    }
+
+    public void put(long id, String title, String author, String isbn) {
+        remove(id);
+        long[] trigrams = trigrams(String.join(" ", nullToEmpty(title), nullToEmpty(author), nullToEmpty(isbn)), false);
+
+        int ordinal = docCount++;
+        if (ordinal == ids.length) {
+            ids = Arrays.copyOf(ids, ordinal * 2);
+            trigramCounts = Arrays.copyOf(trigramCounts, ordinal * 2);
+        }
+        if (ordinal > 0 && id < ids[ordinal - 1]) {
+            idsAscending = false;
+        }
+        ids[ordinal] = id;
+        trigramCounts[ordinal] = (short) Math.min(trigrams.length, Short.MAX_VALUE);
+        live++;
+        for (long trigram : trigrams) {
+            append(listFor(trigram, true), ordinal);
+        }
+    }
+
+    public boolean remove(long id) {
+        int ordinal = ordinalOf(id);
+        if (ordinal < 0) {
+            return false;
+        }
+        deleted.set(ordinal);
+        live--;
+        return true;
+    }
+
+    /** Hits {@code offset} to {@code offset + limit} for {@code query}, best first; total counts every hit. */
+    public Page search(String query, int offset, int limit) {
+        long[] trigrams = trigrams(query, true);
+        if (trigrams.length == 0 || limit <= 0 || offset >= MAX_WINDOW) {
+            return new Page(0, List.of());
+        }
+        if (trigrams.length > MAX_QUERY_TRIGRAMS) {
+            trigrams = Arrays.copyOf(trigrams, MAX_QUERY_TRIGRAMS);
+        }
+        int q = trigrams.length;
+        int required = Math.max(1, (int) Math.ceil(minMatch * q));
+
+        short[] counts = borrowCounters();
+        int[] touched = new int[256];
+        int touchedCount = 0;
+        for (long trigram : trigrams) {
+            int list = listFor(trigram, false);
+            if (list < 0) {
+                continue;
+            }
+            byte[] data = postings[list];
+            int length = postingLengths[list];
+            int ordinal = 0;
+            for (int pos = 0; pos < length; ) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[pos++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                ordinal += gap;
+                if (counts[ordinal]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = ordinal;
+                }
+            }
+        }
+
+        // Keep the best offset+limit in a min-heap of packed (rank, ordinal) keys
+        int window = Math.min(offset + limit, MAX_WINDOW);
+        long[] heap = new long[window];
+        int heapSize = 0;
+        int total = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            int ordinal = touched[t];
+            int matched = counts[ordinal];
+            counts[ordinal] = 0;
+            if (matched < required || deleted.get(ordinal)) {
+                continue;
+            }
+            total++;
+            double dice = 2.0 * matched / (q + trigramCounts[ordinal]);
+            long rank = ((long) matched << 16) | (long) (dice * 0xFFFF);
+            long key = (rank << 32) | (Integer.MAX_VALUE - ordinal);
+            if (heapSize < window) {
+                heap[heapSize] = key;
+                siftUp(heap, heapSize++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        // Every touched count is back to zero, so the array can be reused as is
+        releaseCounters(counts);
+
+        Arrays.sort(heap, 0, heapSize);
+        List<Hit> hits = new ArrayList<>(Math.max(heapSize - offset, 0));
+        for (int i = heapSize - 1 - offset; i >= 0; i--) {
+            long key = heap[i];
+            int ordinal = Integer.MAX_VALUE - (int) key;
+            int matched = (int) (key >>> 48);
+            hits.add(new Hit(ids[ordinal], Math.round(1000.0 * matched / q) / 1000.0));
+        }
+        return new Page(total, hits);
+    }
+
+    /** Approximate heap footprint of the index's arrays, in bytes. */
+    public long memoryBytes() {
+        long bytes = 8L * ids.length + 2L * trigramCounts.length + deleted.size() / 8
+                + 8L * keys.length + 4L * lists.length
+                + 8L * postings.length + 4L * postingLengths.length + 4L * postingLast.length;
+        for (int i = 0; i < trigramCount; i++) {
+            bytes += 16 + postings[i].length; // array header + data
+        }
+        synchronized (counters) {
+            for (short[] counts : counters) {
+                bytes += 16 + 2L * counts.length;
+            }
+        }
+        return bytes;
+    }
+
+    public int trigrams() {
+        return trigramCount;
+    }
+
+    private short[] borrowCounters() {
+        short[] counts;
+        synchronized (counters) {
+            counts = counters.poll();
+        }
+        if (counts == null || counts.length < docCount) {
+            // Grown with headroom so a few appends do not force a new array per search
+            counts = new short[Math.max(docCount, counts != null ? counts.length * 2 : 1024)];
+        }
+        return counts;
+    }
+
+    private void releaseCounters(short[] counts) {
+        synchronized (counters) {
+            if (counters.size() < MAX_POOLED_COUNTERS) {
+                counters.push(counts);
+            }
+        }
+    }
+
+    private int ordinalOf(long id) {
+        if (idsAscending) {
+            int ordinal = Arrays.binarySearch(ids, 0, docCount, id);
+            // Re-appended ids repeat; the newest copy is the live one
+            while (ordinal >= 0 && ordinal + 1 < docCount && ids[ordinal + 1] == id) {
+                ordinal++;
+            }
+            return ordinal >= 0 && !deleted.get(ordinal) ? ordinal : -1;
+        }
+        for (int ordinal = docCount - 1; ordinal >= 0; ordinal--) {
+            if (ids[ordinal] == id && !deleted.get(ordinal)) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    private int listFor(long trigram, boolean create) {
+        int mask = keys.length - 1;
+        int slot = (int) mix(trigram) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == trigram) {
+                return lists[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (!create) {
+            return -1;
+        }
+        int list = trigramCount++;
+        keys[slot] = trigram;
+        lists[slot] = list;
+        if (list == postings.length) {
+            postings = Arrays.copyOf(postings, list * 2);
+            postingLengths = Arrays.copyOf(postingLengths, list * 2);
+            postingLast = Arrays.copyOf(postingLast, list * 2);
+        }
+        postings[list] = new byte[4];
+        if (trigramCount * 2 > keys.length) {
+            rehash();
+        }
+        return list;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldLists = lists;
+        keys = new long[oldKeys.length * 2];
+        lists = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = (int) mix(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                lists[slot] = oldLists[i];
+            }
+        }
+    }
+
+    private void append(int list, int ordinal) {
+        int gap = ordinal - postingLast[list];
+        postingLast[list] = ordinal;
+        byte[] data = postings[list];
+        int length = postingLengths[list];
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length + (data.length >> 1), length + 5));
+            postings[list] = data;
+        }
+        while ((gap & ~0x7F) != 0) {
+            data[length++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        data[length++] = (byte) gap;
+        postingLengths[list] = length;
+    }
+
+    /**
+     * Distinct packed trigrams of the words of {@code text}. With
+     * {@code openEnded} the last word gets no end marker, so it matches as a
+     * prefix. Hyphens between digits are dropped, so ISBNs index as one word.
+     */
+    static long[] trigrams(String text, boolean openEnded) {
+        if (text == null || text.isEmpty()) {
+            return new long[0];
+        }
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (c == '-' && word.length() > 0 && Character.isDigit(word.charAt(word.length() - 1))
+                    && i + 1 < text.length() && Character.isDigit(text.charAt(i + 1))) {
+                // ISBN separator
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        } else {
+            openEnded = false; // trailing separator: the last word is complete
+        }
+
+        int total = 0;
+        for (String w : words) {
+            total += w.length() + 1;
+        }
+        long[] trigrams = new long[total];
+        int n = 0;
+        for (int w = 0; w < words.size(); w++) {
+            String padded = "" + START + START + words.get(w) + (openEnded && w == words.size() - 1 ? "" : END);
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams[n++] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+            }
+        }
+        trigrams = Arrays.copyOf(trigrams, n);
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= heap[i]) {
+                return;
+            }
+            long tmp = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = tmp;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            long tmp = heap[smallest];
+            heap[smallest] = heap[i];
+            heap[i] = tmp;
+            i = smallest;
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Fee;
+import com.example.campus.repository.FeeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Cached per-student fee ledger built from a single GROUP BY status query.
+ * Anything that creates a fee or changes its status must call
+ * {@link #invalidate(Long)} for the affected student.
+ */
+@Service
+public class FeeLedgerService {
+
+    @Autowired
+    private FeeRepository feeRepository;
+
+    private final TtlCache<Long, FeeLedgerSummary> cache;
+
+    public FeeLedgerService(@Value("${campus.fees.ledger-cache-ttl:10m}") Duration ttl) {
+        this.cache = new TtlCache<>(ttl);
+    }
+
+    public FeeLedgerSummary summary(Long studentId) {
+        return cache.get(studentId, () -> load(studentId));
+    }
+
+    public void invalidate(Long studentId) {
+        cache.invalidate(studentId);
+    }
+
+    public void invalidate(Collection<Long> studentIds) {
+        studentIds.forEach(cache::invalidate);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private FeeLedgerSummary load(Long studentId) {
+        BigDecimal paid = BigDecimal.ZERO;
+        BigDecimal pending = BigDecimal.ZERO;
+        BigDecimal overdue = BigDecimal.ZERO;
+        BigDecimal cancelled = BigDecimal.ZERO;
+        long paidCount = 0;
+        long pendingCount = 0;
+        long overdueCount = 0;
+        long cancelledCount = 0;
+
+        for (Object[] row : feeRepository.summarizeLedger(studentId, LocalDateTime.now())) {
+            Fee.PaymentStatus status = row[0] != null ? (Fee.PaymentStatus) row[0] : Fee.PaymentStatus.PENDING;
+            long count = asLong(row[1]);
+            BigDecimal amount = asDecimal(row[2]);
+            long pastDueCount = asLong(row[3]);
+            BigDecimal pastDueAmount = asDecimal(row[4]);
+
+            switch (status) {
+                case PAID -> {
+                    paid = paid.add(amount);
+                    paidCount += count;
+                }
+                case PENDING -> {
+                    pending = pending.add(amount.subtract(pastDueAmount));
+                    pendingCount += count - pastDueCount;
+                    overdue = overdue.add(pastDueAmount);
+                    overdueCount += pastDueCount;
+                }
+                case OVERDUE -> {
+                    overdue = overdue.add(amount);
+                    overdueCount += count;
+                }
+                case CANCELLED -> {
+                    cancelled = cancelled.add(amount);
+                    cancelledCount += count;
+                }
+            }
+        }
+
+        FeeLedgerSummary.State state;
+        if (paidCount + pendingCount + overdueCount + cancelledCount == 0) {
+            state = FeeLedgerSummary.State.NO_FEES;
+        } else if (overdueCount > 0) {
+            state = FeeLedgerSummary.State.OVERDUE;
+        } else if (pendingCount == 0) {
+            state = FeeLedgerSummary.State.CLEAR;
+        } else if (paidCount > 0) {
+            state = FeeLedgerSummary.State.PARTIAL;
+        } else {
+            state = FeeLedgerSummary.State.OUTSTANDING;
+        }
+
+        return new FeeLedgerSummary(paid, pending, overdue, cancelled,
+                paidCount, pendingCount, overdueCount, cancelledCount, state);
+    }
+
+    private static long asLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private static BigDecimal asDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
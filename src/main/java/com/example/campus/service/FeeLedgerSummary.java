@@ -0,0 +1,37 @@
+package com.example.campus.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-student fee totals. PENDING fees that are already past their due date
+ * are reported as overdue even before the status column catches up.
+ */
+public record FeeLedgerSummary(
+        BigDecimal totalPaid,
+        BigDecimal totalPending,
+        BigDecimal totalOverdue,
+        BigDecimal totalCancelled,
+        long paidCount,
+        long pendingCount,
+        long overdueCount,
+        long cancelledCount,
+        State state
+) {
+
+    public enum State {
+        // No fees raised at all
+        NO_FEES,
+        // Everything raised has been paid (or cancelled)
+        CLEAR,
+        // Some fees paid, some still open, nothing past due
+        PARTIAL,
+        // Nothing paid yet, nothing past due
+        OUTSTANDING,
+        // At least one open fee is past its due date
+        OVERDUE
+    }
+
+    public BigDecimal totalOutstanding() {
+        return totalPending.add(totalOverdue);
+    }
+}
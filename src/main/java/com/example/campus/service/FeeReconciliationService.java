@@ -0,0 +1,429 @@
+package com.example.campus.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Matches bank statement lines to open (PENDING or OVERDUE) fees and marks
+ * them PAID.
+ *
+ * Open fees are loaded once into a hash index keyed by student reference and
+ * amount; the statement itself is read a line at a time and applied in JDBC
+ * batches, so memory depends on the number of open fees rather than on the
+ * size of the file. Lines that cannot be matched go to an exceptions report
+ * on disk, kept for a configurable time. Fee transaction ids are unique, and
+ * lines whose transaction id is already recorded are skipped, so a statement
+ * can be replayed safely; one recorded by a concurrent payment while the batch
+ * was being built becomes an exception instead of failing the file.
+ *
+ * Expected columns (header row, any order): transactionId, reference, amount,
+ * and optionally date (yyyy-MM-dd or ISO date-time) and method. The reference
+ * is the student's roll number or username.
+ */
+@Service
+public class FeeReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeeReconciliationService.class);
+
+    private static final String OPEN_FEES_SQL = "SELECT f.id, f.student_id, f.amount, u.student_id, u.username FROM fees f " +
+            "JOIN users u ON u.id = f.student_id WHERE f.status IN ('PENDING', 'OVERDUE') ORDER BY f.due_date, f.id";
+
+    private static final String MARK_PAID_SQL = "UPDATE fees SET status = 'PAID', paid_date = ?, payment_method = ?, " +
+            "transaction_id = ?, updated_at = ?, version = version + 1 WHERE id = ? AND status IN ('PENDING', 'OVERDUE')";
+
+    // Row outcome in a batch replayed row by row: its transaction id was taken meanwhile
+    private static final int DUPLICATE_TRANSACTION = -100;
+
+    private static final Pattern REPORT_ID = Pattern.compile("[0-9a-f\\-]{36}");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Value("${campus.fees.reconciliation.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${campus.fees.reconciliation.report-dir:${campus.data-dir:${user.home}/campus-data}/reconciliation}")
+    private String reportDir;
+
+    // Exceptions reports older than this are deleted
+    @Value("${campus.fees.reconciliation.report-retention:30d}")
+    private Duration reportRetention;
+
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public FeeReconciliationService(PlatformTransactionManager transactionManager, DataSource dataSource) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // MySQL Connector/J streams rows one at a time only with this fetch size
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /** Reconciles one statement and returns the summary, including the id of the exceptions report. */
+    public Map<String, Object> reconcile(InputStream statement, String paymentMethod) throws IOException {
+        long started = System.nanoTime();
+        OpenFeeIndex index = loadOpenFees();
+
+        String reportId = UUID.randomUUID().toString();
+        Path dir = Paths.get(reportDir);
+        Files.createDirectories(dir);
+        Path reportPath = dir.resolve(reportId + ".csv");
+
+        Run run = new Run(index, paymentMethod);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(statement, StandardCharsets.UTF_8));
+             BufferedWriter report = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8)) {
+            run.report = report;
+            report.write("line,transactionId,reference,amount,reason");
+            report.newLine();
+
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("Statement is empty");
+            }
+            run.columns(parseCsvLine(header));
+
+            String line;
+            long lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    run.accept(lineNumber, parseCsvLine(line));
+                }
+            }
+            run.flush();
+        }
+
+        if (!run.touchedStudents.isEmpty()) {
+            feeLedgerService.invalidate(run.touchedStudents);
+            adminStatsService.invalidate();
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("reportId", reportId);
+        summary.put("lines", run.lines);
+        summary.put("matched", run.matched);
+        summary.put("alreadyReconciled", run.duplicates);
+        summary.put("exceptions", run.exceptions);
+        summary.put("openFeesIndexed", index.size);
+        summary.put("durationMillis", (System.nanoTime() - started) / 1_000_000);
+        log.info("Fee reconciliation finished: {}", summary);
+        return summary;
+    }
+
+    @Scheduled(cron = "${campus.fees.reconciliation.report-cleanup-cron:0 15 4 * * *}")
+    public void deleteOldReports() {
+        Path dir = Paths.get(reportDir);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(reportRetention);
+        int deleted = 0;
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(dir, "*.csv")) {
+            for (Path path : reports) {
+                try {
+                    if (Files.getLastModifiedTime(path).toInstant().isBefore(cutoff)) {
+                        Files.deleteIfExists(path);
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not delete reconciliation report {}", path, e);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Reconciliation report cleanup failed", e);
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} reconciliation reports older than {}", deleted, reportRetention);
+        }
+    }
+
+    /** Exceptions report written by {@link #reconcile}, or null if there is no such report. */
+    public Path report(String reportId) {
+        if (!REPORT_ID.matcher(reportId).matches()) {
+            return null;
+        }
+        Path path = Paths.get(reportDir).resolve(reportId + ".csv");
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    private OpenFeeIndex loadOpenFees() {
+        OpenFeeIndex index = new OpenFeeIndex();
+        streamingJdbcTemplate.query(OPEN_FEES_SQL, rs -> {
+            long feeId = rs.getLong(1);
+            long studentId = rs.getLong(2);
+            String amount = normalizeAmount(rs.getBigDecimal(3));
+            index.add(feeId, studentId, rs.getString(4), rs.getString(5), amount);
+        });
+        return index;
+    }
+
+    /** State of one statement import; lines are buffered until a batch is full. */
+    private class Run {
+        private final OpenFeeIndex index;
+        private final String defaultMethod;
+        private final List<String[]> pending = new ArrayList<>();
+        private final List<Long> pendingLines = new ArrayList<>();
+        private final Set<Long> touchedStudents = new HashSet<>();
+        private BufferedWriter report;
+        private int txColumn = -1, refColumn = -1, amountColumn = -1, dateColumn = -1, methodColumn = -1;
+        private long lines, matched, duplicates, exceptions;
+
+        Run(OpenFeeIndex index, String defaultMethod) {
+            this.index = index;
+            this.defaultMethod = defaultMethod;
+        }
+
+        void columns(String[] header) {
+            for (int i = 0; i < header.length; i++) {
+                switch (header[i].trim().toLowerCase(Locale.ROOT).replace("_", "")) {
+                    case "transactionid", "txnid", "transaction" -> txColumn = i;
+                    case "reference", "studentref", "studentid", "rollnumber" -> refColumn = i;
+                    case "amount" -> amountColumn = i;
+                    case "date", "paiddate", "valuedate" -> dateColumn = i;
+                    case "method", "paymentmethod" -> methodColumn = i;
+                    default -> { }
+                }
+            }
+            if (txColumn < 0 || refColumn < 0 || amountColumn < 0) {
+                throw new IllegalArgumentException("Statement header must contain transactionId, reference and amount");
+            }
+        }
+
+        void accept(long lineNumber, String[] fields) throws IOException {
+            lines++;
+            pending.add(fields);
+            pendingLines.add(lineNumber);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Set<String> known = existingTransactionIds();
+            Set<String> seenInBatch = new HashSet<>();
+            List<Object[]> updates = new ArrayList<>();
+            List<long[]> claimed = new ArrayList<>(); // [feeId, studentId, line, index in batch]
+
+            for (int i = 0; i < pending.size(); i++) {
+                String[] fields = pending.get(i);
+                long lineNumber = pendingLines.get(i);
+                String txId = field(fields, txColumn);
+                String ref = field(fields, refColumn);
+                String amountText = field(fields, amountColumn);
+
+                if (txId.isEmpty()) {
+                    exception(lineNumber, fields, "missing transaction id");
+                    continue;
+                }
+                if (known.contains(txId) || !seenInBatch.add(txId)) {
+                    duplicates++;
+                    continue;
+                }
+                String amount;
+                LocalDateTime paidAt;
+                try {
+                    amount = normalizeAmount(new BigDecimal(amountText));
+                    paidAt = parseDate(field(fields, dateColumn));
+                } catch (RuntimeException e) {
+                    exception(lineNumber, fields, "unreadable amount or date");
+                    continue;
+                }
+                long[] fee = index.claim(ref, amount);
+                if (fee == null) {
+                    exception(lineNumber, fields, "no open fee for reference and amount");
+                    continue;
+                }
+                String method = field(fields, methodColumn);
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                updates.add(new Object[]{Timestamp.valueOf(paidAt), method.isEmpty() ? defaultMethod : method,
+                        txId, now, fee[0]});
+                claimed.add(new long[]{fee[0], fee[1], lineNumber, i});
+            }
+
+            if (!updates.isEmpty()) {
+                int[] counts;
+                try {
+                    counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(MARK_PAID_SQL, updates));
+                } catch (DuplicateKeyException e) {
+                    // A transaction id was recorded by another payment since the check above; the batch
+                    // rolled back, so apply its rows one at a time and let only the clashing ones fail
+                    counts = new int[updates.size()];
+                    for (int i = 0; i < updates.size(); i++) {
+                        Object[] update = updates.get(i);
+                        try {
+                            counts[i] = jdbcTemplate.update(MARK_PAID_SQL, update);
+                        } catch (DuplicateKeyException duplicate) {
+                            counts[i] = DUPLICATE_TRANSACTION;
+                        }
+                    }
+                }
+                for (int i = 0; i < claimed.size(); i++) {
+                    long[] fee = claimed.get(i);
+                    int count = counts != null && i < counts.length ? counts[i] : Statement.SUCCESS_NO_INFO;
+                    if (count == DUPLICATE_TRANSACTION) {
+                        exception(fee[2], pending.get((int) fee[3]), "transaction id recorded by another payment");
+                    } else if (count == 0) {
+                        // Paid or cancelled through another path since the index was built
+                        exception(fee[2], pending.get((int) fee[3]), "fee is no longer open");
+                    } else {
+                        matched++;
+                        touchedStudents.add(fee[1]);
+                    }
+                }
+            }
+            pending.clear();
+            pendingLines.clear();
+        }
+
+        private Set<String> existingTransactionIds() {
+            Set<String> ids = new HashSet<>();
+            for (String[] fields : pending) {
+                String txId = field(fields, txColumn);
+                if (!txId.isEmpty()) {
+                    ids.add(txId);
+                }
+            }
+            if (ids.isEmpty()) {
+                return ids;
+            }
+            return new HashSet<>(namedJdbcTemplate.queryForList(
+                    "SELECT transaction_id FROM fees WHERE transaction_id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids), String.class));
+        }
+
+        private void exception(long lineNumber, String[] fields, String reason) throws IOException {
+            exceptions++;
+            report.write(lineNumber + "," + csv(field(fields, txColumn)) + "," + csv(field(fields, refColumn)) + ","
+                    + csv(field(fields, amountColumn)) + "," + csv(reason));
+            report.newLine();
+        }
+    }
+
+    /**
+     * Open fees by "reference|amount", oldest due first. A fee is reachable from
+     * both the student's roll number and username, so claimed ids are tracked to
+     * avoid paying the same fee twice.
+     */
+    private static class OpenFeeIndex {
+        private final Map<String, ArrayDeque<long[]>> byKey = new HashMap<>();
+        private final Set<Long> claimed = new HashSet<>();
+        private int size;
+
+        void add(long feeId, long studentId, String rollNumber, String username, String amount) {
+            long[] fee = {feeId, studentId};
+            if (rollNumber != null && !rollNumber.isBlank()) {
+                byKey.computeIfAbsent(key(rollNumber, amount), k -> new ArrayDeque<>()).add(fee);
+            }
+            if (username != null) {
+                byKey.computeIfAbsent(key(username, amount), k -> new ArrayDeque<>()).add(fee);
+            }
+            size++;
+        }
+
+        long[] claim(String reference, String amount) {
+            ArrayDeque<long[]> fees = byKey.get(key(reference, amount));
+            while (fees != null && !fees.isEmpty()) {
+                long[] fee = fees.poll();
+                if (claimed.add(fee[0])) {
+                    return fee;
+                }
+            }
+            return null;
+        }
+
+        private static String key(String reference, String amount) {
+            return reference.trim().toUpperCase(Locale.ROOT) + "|" + amount;
+        }
+    }
+
+    private static String normalizeAmount(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        if (value.isEmpty()) {
+            return LocalDateTime.now();
+        }
+        return value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+    }
+
+    private static String field(String[] fields, int column) {
+        return column >= 0 && column < fields.length ? fields[column].trim() : "";
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /** Splits one CSV line, honouring double-quoted fields with "" escapes. */
+    static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Fee;
+import com.example.campus.entity.FeeSchedule;
+import com.example.campus.repository.FeeRepository;
+import com.example.campus.repository.FeeScheduleRepository;
+import com.example.campus.user.Role;
+import com.example.campus.user.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Applies {@link FeeSchedule}s: one PENDING fee per matching student.
+ *
+ * Student ids are streamed in keyset pages and each page is written with a
+ * single JDBC batch. The (schedule_id, student_id) unique key plus ON
+ * DUPLICATE KEY UPDATE makes a re-run only fill in the students that were
+ * added since, so an interrupted job can simply be started again. Jobs run
+ * one at a time on a background thread and report progress through
+ * {@link #job(String)}.
+ */
+@Service
+public class FeeScheduleService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeeScheduleService.class);
+
+    // A student already billed by this schedule is a no-op; any other error still fails the batch
+    private static final String INSERT_SQL = "INSERT INTO fees (student_id, fee_type, amount, due_date, status, " +
+            "schedule_id, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0) " +
+            "ON DUPLICATE KEY UPDATE id = id";
+
+    // Finished jobs kept around for the progress endpoint
+    private static final int MAX_JOBS = 100;
+
+    @Autowired
+    private FeeScheduleRepository feeScheduleRepository;
+
+    @Autowired
+    private FeeRepository feeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Value("${campus.fees.schedule.batch-size:1000}")
+    private int batchSize;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "fee-schedule");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Map<String, Object>> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Map<String, Object>> eldest) {
+            return size() > MAX_JOBS;
+        }
+    });
+
+    public FeeScheduleService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Queues a run of the schedule and returns the job id to poll. */
+    public String apply(FeeSchedule schedule, String requestedBy) {
+        String jobId = UUID.randomUUID().toString();
+        Map<String, Object> job = new ConcurrentHashMap<>();
+        job.put("jobId", jobId);
+        job.put("scheduleId", schedule.getId());
+        job.put("requestedBy", requestedBy);
+        job.put("status", "QUEUED");
+        job.put("studentsProcessed", 0L);
+        job.put("feesCreated", 0L);
+        jobs.put(jobId, job);
+
+        executor.execute(() -> run(schedule, job));
+        return jobId;
+    }
+
+    public Map<String, Object> job(String jobId) {
+        Map<String, Object> job = jobs.get(jobId);
+        return job != null ? new LinkedHashMap<>(job) : null;
+    }
+
+    private void run(FeeSchedule schedule, Map<String, Object> job) {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        job.put("status", "RUNNING");
+        job.put("startedAt", now.toString());
+        // Set once a batch commits; those fees exist even if a later batch fails
+        boolean wrote = false;
+        try {
+            long existing = feeRepository.countByScheduleId(schedule.getId());
+            String department = blankToNull(schedule.getDepartment());
+            String semester = blankToNull(schedule.getSemester());
+            Timestamp dueDate = Timestamp.valueOf(schedule.getDueDate());
+            Timestamp createdAt = Timestamp.valueOf(now);
+
+            long processed = 0;
+            Long afterId = 0L;
+            while (true) {
+                PageRequest page = PageRequest.of(0, batchSize);
+                List<Long> studentIds = department == null && semester == null
+                        ? userRepository.findIdsByRoleAfter(Role.STUDENT, afterId, page)
+                        : userRepository.findIdsByProfileAfter(Role.STUDENT, department, semester, afterId, page);
+                if (studentIds.isEmpty()) {
+                    break;
+                }
+
+                List<Object[]> rows = new ArrayList<>(studentIds.size());
+                for (Long studentId : studentIds) {
+                    rows.add(new Object[]{studentId, schedule.getFeeType().name(), schedule.getAmount(), dueDate,
+                            Fee.PaymentStatus.PENDING.name(), schedule.getId(), createdAt, createdAt});
+                }
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+                wrote = true;
+
+                processed += studentIds.size();
+                job.put("studentsProcessed", processed);
+                afterId = studentIds.get(studentIds.size() - 1);
+                if (studentIds.size() < batchSize) {
+                    break;
+                }
+            }
+
+            // Rewritten batches do not report per-row outcomes, so count afterwards
+            long created = feeRepository.countByScheduleId(schedule.getId()) - existing;
+            schedule.setLastAppliedAt(now);
+            feeScheduleRepository.save(schedule);
+            wrote = created > 0;
+
+            job.put("feesCreated", created);
+            job.put("alreadyBilled", processed - created);
+            job.put("status", "COMPLETED");
+        } catch (Exception e) {
+            log.error("Fee schedule {} failed", schedule.getId(), e);
+            job.put("status", "FAILED");
+            job.put("error", String.valueOf(e.getMessage()));
+        } finally {
+            if (wrote) {
+                onFeesWritten(schedule);
+            }
+            job.put("finishedAt", LocalDateTime.now().toString());
+            job.put("durationMillis", (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private void onFeesWritten(FeeSchedule schedule) {
+        try {
+            feeLedgerService.invalidateAll();
+            adminStatsService.invalidate();
+            reminderService.onFeesCreated(schedule.getDueDate());
+        } catch (Exception e) {
+            log.error("Refreshing caches and reminders after fee schedule {} failed", schedule.getId(), e);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
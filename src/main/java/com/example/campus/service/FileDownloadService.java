@@ -0,0 +1,148 @@
+package com.example.campus.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a stored file to the response without loading it into the heap.
+ *
+ * Handles If-None-Match (304), a single byte range with If-Range (206/416)
+ * and hands the transfer to Tomcat's sendfile when the connector offers it,
+ * so the kernel copies straight from the page cache to the socket. Without
+ * sendfile the file is pushed with {@link FileChannel#transferTo}. Multi-range
+ * requests are answered with the whole file, which RFC 9110 allows.
+ */
+@Service
+public class FileDownloadService {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Largest slice handed to transferTo per call
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    /** Serves {@code file}; {@code etag} must be a quoted strong validator. */
+    public void serve(HttpServletRequest request, HttpServletResponse response, Path file, String etag,
+                      String fileName, String contentType) throws IOException {
+        long length = Files.size(file);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(etag))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.trim().equals(etag))) {
+            long[] parsed = parseRange(range, length);
+            if (parsed == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType != null ? contentType : "application/octet-stream");
+        response.setContentLengthLong(count);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(fileName != null ? fileName : file.getFileName().toString(), StandardCharsets.UTF_8)
+                .build().toString());
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat performs the transfer after the handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = source.transferTo(position, Math.min(remaining, TRANSFER_CHUNK), target);
+                if (sent <= 0) {
+                    break; // file shrank underneath us
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Returns {start, end} for a satisfiable single range, an empty array when
+     * the header should be ignored (malformed or several ranges) and null when
+     * the range cannot be satisfied.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return new long[0];
+                }
+                long suffix = Long.parseLong(last); // last N bytes
+                if (suffix <= 0 || length == 0) {
+                    return null;
+                }
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+            long start = Long.parseLong(first);
+            if (!last.isEmpty() && Long.parseLong(last) < start) {
+                return new long[0];
+            }
+            if (start >= length) {
+                return null;
+            }
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.campus.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for uploaded files on local disk.
+ *
+ * An upload is streamed through a fixed direct buffer into a temp file via a
+ * {@link FileChannel}, hashing as it goes, and then renamed to
+ * {@code <root>/ab/cd/<sha256>}. If that path already exists the temp file is
+ * dropped, so identical files are kept once. Only a bounded number of uploads
+ * stream at the same time; the rest wait briefly and are then turned away, so
+ * a deadline rush costs a fixed amount of memory and disk bandwidth.
+ *
+ * The store is the only copy of submitted files, so it lives under the
+ * application's data directory; a root inside the system temp directory,
+ * which reboots and tmp cleaners wipe, is refused.
+ *
+ * Blobs are shared by every submission with the same content, so nothing is
+ * deleted when a submission goes away; {@link UploadSweepService} removes
+ * blobs no submission points at once they are past a grace period. A dedup
+ * hit refreshes the blob's modification time under a read lock, and the sweep
+ * deletes under the write lock only if that time is still old, so a blob is
+ * never removed between being handed out and being saved on a submission.
+ */
+@Service
+public class FileStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public record StoredFile(String hash, String path, long size, boolean deduplicated) {}
+
+    public static class UploadRejectedException extends RuntimeException {
+        private final boolean busy;
+
+        public UploadRejectedException(String message, boolean busy) {
+            super(message);
+            this.busy = busy;
+        }
+
+        public boolean isBusy() { return busy; }
+    }
+
+    @Value("${campus.uploads.dir:${campus.data-dir:${user.home}/campus-data}/uploads}")
+    private Path root;
+
+    // Only for throwaway setups (tests, demos): lets campus.uploads.dir point into the temp directory
+    @Value("${campus.uploads.allow-temp-dir:false}")
+    private boolean allowTempDir;
+
+    @Value("${campus.uploads.max-file-size:25MB}")
+    private DataSize maxFileSize;
+
+    @Value("${campus.uploads.acquire-timeout:10s}")
+    private Duration acquireTimeout;
+
+    private final Semaphore slots;
+    private final ReadWriteLock blobLock = new ReentrantReadWriteLock();
+    private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    public FileStorageService(@Value("${campus.uploads.max-concurrent:16}") int maxConcurrent) {
+        this.slots = new Semaphore(maxConcurrent, true);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path temp = Paths.get(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize();
+        if (root.toAbsolutePath().normalize().startsWith(temp)) {
+            if (!allowTempDir) {
+                throw new IllegalStateException("campus.uploads.dir (" + root + ") is inside the temp directory, " +
+                        "where submitted files can be wiped; point it at persistent storage");
+            }
+            log.warn("Uploads are stored under the temp directory ({}); they will not survive a cleanup", root);
+        }
+        Files.createDirectories(root.resolve("tmp"));
+    }
+
+    public long maxFileSize() {
+        return maxFileSize.toBytes();
+    }
+
+    /**
+     * Streams {@code in} into the store. Throws {@link UploadRejectedException}
+     * when the file is too large or too many uploads are already in flight.
+     */
+    public StoredFile store(InputStream in, long declaredSize) throws IOException {
+        if (declaredSize > maxFileSize.toBytes()) {
+            throw new UploadRejectedException("File exceeds the " + maxFileSize.toMegabytes() + "MB limit", false);
+        }
+        try {
+            if (!slots.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new UploadRejectedException("Too many uploads in progress, please retry shortly", true);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an upload slot", e);
+        }
+
+        Path temp = Files.createTempFile(root.resolve("tmp"), "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            ByteBuffer buffer = buffers.get();
+            try (ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                buffer.clear();
+                int read;
+                while ((read = source.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxFileSize.toBytes()) {
+                        throw new UploadRejectedException("File exceeds the " + maxFileSize.toMegabytes() + "MB limit", false);
+                    }
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                target.force(false);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String relative = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+            Path destination = root.resolve(relative);
+            blobLock.readLock().lock();
+            try {
+                if (Files.exists(destination)) {
+                    touch(destination);
+                    return new StoredFile(hash, relative, size, true);
+                }
+                Files.createDirectories(destination.getParent());
+                try {
+                    Files.move(temp, destination, StandardCopyOption.ATOMIC_MOVE);
+                    return new StoredFile(hash, relative, size, false);
+                } catch (FileAlreadyExistsException e) {
+                    touch(destination);
+                    return new StoredFile(hash, relative, size, true); // same content landed concurrently
+                }
+            } finally {
+                blobLock.readLock().unlock();
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+            slots.release();
+        }
+    }
+
+    /** Absolute location of a stored file, or null if the path does not point into the store. */
+    public Path resolve(String relative) {
+        if (relative == null) {
+            return null;
+        }
+        Path path = root.resolve(relative).normalize();
+        return path.startsWith(root.normalize()) && Files.isRegularFile(path) ? path : null;
+    }
+
+    /** Relative paths of stored blobs last modified before {@code cutoff}; temp files are not included. */
+    public List<String> blobsModifiedBefore(Instant cutoff) throws IOException {
+        Path tmp = root.resolve("tmp");
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(path -> !path.startsWith(tmp))
+                    .filter(path -> Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS))
+                    .filter(path -> modifiedBefore(path, cutoff))
+                    .map(path -> root.relativize(path).toString().replace('\\', '/'))
+                    .toList();
+        }
+    }
+
+    /**
+     * Deletes a blob unless it was modified (stored or handed out again) at or
+     * after {@code cutoff}. Returns whether it was removed.
+     */
+    public boolean deleteIfModifiedBefore(String relative, Instant cutoff) throws IOException {
+        Path path = resolve(relative);
+        if (path == null) {
+            return false;
+        }
+        blobLock.writeLock().lock();
+        try {
+            return modifiedBefore(path, cutoff) && Files.deleteIfExists(path);
+        } finally {
+            blobLock.writeLock().unlock();
+        }
+    }
+
+    /** Removes temp files left behind by uploads that died mid-stream. Returns how many were deleted. */
+    public int deleteTempFilesModifiedBefore(Instant cutoff) throws IOException {
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root.resolve("tmp"), "*.part")) {
+            for (Path file : files) {
+                if (modifiedBefore(file, cutoff) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private static boolean modifiedBefore(Path path, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false; // gone or unreadable: leave it alone
+        }
+    }
+
+    private static void touch(Path path) throws IOException {
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Assignment;
+import com.example.campus.entity.AssignmentSubmission;
+import com.example.campus.entity.Mark;
+import com.example.campus.repository.AssignmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Grades many submissions of one assignment in a single transaction.
+ *
+ * Entries are validated against maxMarks up front, the matching submissions
+ * are read with one query, and the grades are written with one JDBC batch
+ * UPDATE. With mirroring on, the same pass upserts an ASSIGNMENT mark per
+ * student keyed by (assignment_id, student_id), so regrading replaces the
+ * mark instead of adding another. Marks rows hold at most 100, so a mark
+ * for an assignment out of more than that is mirrored scaled to 100.
+ * Assignments with no maxMarks cannot be graded. Every entry gets its own
+ * outcome.
+ */
+@Service
+public class GradingService {
+
+    public enum Outcome { GRADED, REGRADED, INVALID, NOT_SUBMITTED, DUPLICATE }
+
+    public record GradeEntry(Long studentId, Integer marks, String feedback) {}
+
+    public record GradeResult(Long studentId, Outcome outcome, String message) {}
+
+    public record GradeReport(Long assignmentId, int graded, int rejected, boolean mirroredToMarks,
+                              List<GradeResult> results) {}
+
+    // Mark.maxMarks and Mark.marksObtained are capped at this
+    private static final int MARK_SCALE = 100;
+
+    private static final String UPDATE_SQL = "UPDATE assignment_submissions SET marks_obtained = ?, feedback = ?, " +
+            "graded_by = ?, graded_at = ?, status = 'GRADED', updated_at = ? WHERE id = ?";
+
+    private static final String MARK_UPSERT_SQL = "INSERT INTO marks (student_id, subject, exam_type, marks_obtained, " +
+            "max_marks, entered_by, assignment_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE marks_obtained = VALUES(marks_obtained), max_marks = VALUES(max_marks), " +
+            "entered_by = VALUES(entered_by), updated_at = VALUES(updated_at)";
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private PendingReviewCounter pendingReviewCounter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public GradingService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Grades {@code entries}; the caller has already checked that {@code gradedBy} owns the assignment. */
+    public GradeReport grade(Assignment assignment, String gradedBy, List<GradeEntry> entries, boolean mirrorToMarks) {
+        Integer maxMarks = assignment.getMaxMarks();
+        Map<Long, GradeResult> results = new LinkedHashMap<>();
+        Map<Long, GradeEntry> valid = new LinkedHashMap<>();
+        for (GradeEntry entry : entries) {
+            if (entry.studentId() == null) {
+                continue;
+            }
+            if (results.containsKey(entry.studentId()) || valid.containsKey(entry.studentId())) {
+                valid.remove(entry.studentId());
+                results.put(entry.studentId(), new GradeResult(entry.studentId(), Outcome.DUPLICATE,
+                        "Student listed more than once"));
+            } else if (maxMarks == null) {
+                results.put(entry.studentId(), new GradeResult(entry.studentId(), Outcome.INVALID,
+                        "Assignment has no maximum marks set"));
+            } else if (entry.marks() == null || entry.marks() < 0 || entry.marks() > maxMarks) {
+                results.put(entry.studentId(), new GradeResult(entry.studentId(), Outcome.INVALID,
+                        "Marks must be between 0 and " + maxMarks));
+            } else {
+                valid.put(entry.studentId(), entry);
+            }
+        }
+
+        long[] newlyGraded = new long[1];
+        if (!valid.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    newlyGraded[0] = apply(assignment, gradedBy, valid, results, mirrorToMarks));
+        }
+        // Only after commit: the counter must never run ahead of the table
+        pendingReviewCounter.onGraded(assignment.getCreatedBy(), newlyGraded[0]);
+
+        List<GradeResult> ordered = new ArrayList<>(results.size());
+        int graded = 0;
+        for (GradeEntry entry : entries) {
+            GradeResult result = results.remove(entry.studentId());
+            if (result != null) {
+                ordered.add(result);
+                if (result.outcome() == Outcome.GRADED || result.outcome() == Outcome.REGRADED) {
+                    graded++;
+                }
+            }
+        }
+        return new GradeReport(assignment.getId(), graded, ordered.size() - graded, mirrorToMarks, ordered);
+    }
+
+    private long apply(Assignment assignment, String gradedBy, Map<Long, GradeEntry> valid,
+                       Map<Long, GradeResult> results, boolean mirrorToMarks) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("assignmentId", assignment.getId())
+                .addValue("studentIds", valid.keySet());
+        Map<Long, Object[]> submissions = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, student_id, status FROM assignment_submissions " +
+                "WHERE assignment_id = :assignmentId AND student_id IN (:studentIds)", params, rs -> {
+            submissions.put(rs.getLong("student_id"), new Object[]{rs.getLong("id"), rs.getString("status")});
+        });
+
+        int maxMarks = assignment.getMaxMarks();
+        int markMax = Math.min(maxMarks, MARK_SCALE);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>(valid.size());
+        List<Object[]> marks = new ArrayList<>(valid.size());
+        long newlyGraded = 0;
+        for (GradeEntry entry : valid.values()) {
+            Object[] submission = submissions.get(entry.studentId());
+            if (submission == null) {
+                results.put(entry.studentId(), new GradeResult(entry.studentId(), Outcome.NOT_SUBMITTED,
+                        "No submission from this student"));
+                continue;
+            }
+            boolean regrade = AssignmentSubmission.SubmissionStatus.GRADED.name().equals(submission[1]);
+            if (!regrade) {
+                newlyGraded++;
+            }
+            updates.add(new Object[]{entry.marks(), entry.feedback(), gradedBy, now, now, submission[0]});
+            if (mirrorToMarks) {
+                marks.add(new Object[]{entry.studentId(), assignment.getSubject(), Mark.ExamType.ASSIGNMENT.name(),
+                        scaleToMark(entry.marks(), maxMarks), markMax, gradedBy, assignment.getId(), now, now});
+            }
+            results.put(entry.studentId(), new GradeResult(entry.studentId(),
+                    regrade ? Outcome.REGRADED : Outcome.GRADED, null));
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        if (!marks.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_UPSERT_SQL, marks);
+        }
+        return newlyGraded;
+    }
+
+    private static int scaleToMark(int marks, int maxMarks) {
+        return maxMarks <= MARK_SCALE ? marks : (int) Math.round(marks * (double) MARK_SCALE / maxMarks);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.BookTitle;
+import com.example.campus.repository.BookTitleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Catalogue search for everyone on campus, served from a
+ * {@link CatalogSearchIndex} held in memory.
+ *
+ * The index is built from book_titles once the application is up and kept
+ * current as titles are added. It only decides which titles match and in
+ * what order; the page of hits is then read by primary key so titles, authors
+ * and copy counts are always the stored ones.
+ */
+@Service
+public class LibrarySearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(LibrarySearchService.class);
+
+    public static final int MAX_PAGE_SIZE = 50;
+
+    @Autowired
+    private BookTitleRepository bookTitleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final CatalogSearchIndex index;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public LibrarySearchService(@Value("${campus.library.search.min-match:0.6}") double minMatch) {
+        this.index = new CatalogSearchIndex(minMatch);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            jdbcTemplate.query("SELECT id, title, author, isbn FROM book_titles ORDER BY id",
+                    rs -> {
+                        index.put(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+                    });
+            log.info("Library search index: {} titles, {} trigrams, ~{} KB in {} ms", index.size(), index.trigrams(),
+                    index.memoryBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Call after a title is created or its title, author or ISBN changes. */
+    public void onTitleSaved(BookTitle book) {
+        lock.writeLock().lock();
+        try {
+            index.put(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onTitleDeleted(Long id) {
+        lock.writeLock().lock();
+        try {
+            index.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, Object> search(String query, int page, int size) {
+        long started = System.nanoTime();
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int offset = Math.max(page, 0) * pageSize;
+
+        CatalogSearchIndex.Page result;
+        lock.readLock().lock();
+        try {
+            result = index.search(query, offset, pageSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = new ArrayList<>(result.hits().size());
+        for (CatalogSearchIndex.Hit hit : result.hits()) {
+            ids.add(hit.id());
+        }
+        Map<Long, BookTitle> books = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (BookTitle book : bookTitleRepository.findAllById(ids)) {
+                books.put(book.getId(), book);
+            }
+        }
+        List<Map<String, Object>> hits = new ArrayList<>(ids.size());
+        for (CatalogSearchIndex.Hit hit : result.hits()) {
+            BookTitle book = books.get(hit.id());
+            if (book == null) {
+                continue; // deleted underneath us
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", book.getId());
+            item.put("title", book.getTitle());
+            item.put("author", book.getAuthor());
+            item.put("isbn", book.getIsbn());
+            item.put("availableCopies", book.getAvailableCopies());
+            item.put("totalCopies", book.getTotalCopies());
+            item.put("score", hit.score());
+            hits.add(item);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("query", query);
+        body.put("page", Math.max(page, 0));
+        body.put("size", pageSize);
+        body.put("total", result.total());
+        body.put("hits", hits);
+        body.put("tookMillis", (System.nanoTime() - started) / 1_000_000);
+        return body;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.BookCopy;
+import com.example.campus.entity.BookTitle;
+import com.example.campus.entity.Library;
+import com.example.campus.repository.BookCopyRepository;
+import com.example.campus.repository.BookTitleRepository;
+import com.example.campus.repository.LibraryRepository;
+import com.example.campus.user.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Library catalogue and lending.
+ *
+ * An issue claims one specific {@link BookCopy} by flipping it from
+ * AVAILABLE to ISSUED with a conditional UPDATE, so two requests can never
+ * take the same copy, and then takes one off the title's availableCopies with
+ * a guarded decrement. Concurrent issues of a popular title only contend on
+ * the copy rows they try and, briefly, on the title row; nothing locks the
+ * tables. Returning reverses both steps, once.
+ *
+ * A title enters the catalogue with one ISSUED copy for every issue of its
+ * ISBN made before the catalogue existed and not yet returned, so books
+ * already on loan are not handed out again and come back through the normal
+ * return path.
+ */
+@Service
+public class LibraryService {
+
+    // Copies tried per round; shuffled so concurrent issuers mostly go for different rows
+    private static final int CLAIM_PAGE = 16;
+
+    public enum Outcome { ISSUED, UNAVAILABLE, RETURNED, ALREADY_RETURNED, NOT_FOUND }
+
+    public record IssueResult(Outcome outcome, Library issue) {}
+
+    @Autowired
+    private BookTitleRepository bookTitleRepository;
+
+    @Autowired
+    private BookCopyRepository bookCopyRepository;
+
+    @Autowired
+    private LibraryRepository libraryRepository;
+
+    @Autowired
+    private LibrarySearchService librarySearchService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public LibraryService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Adds {@code copies} available copies of the title with this ISBN,
+     * creating the catalogue entry if needed; copies still out on
+     * pre-catalogue issues come on top.
+     */
+    public BookTitle addCopies(String title, String author, String isbn, int copies) {
+        Long titleId = findOrCreateTitle(title, author, isbn).getId();
+        if (copies > 0) {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<BookCopy> rows = new ArrayList<>(copies);
+                for (int i = 0; i < copies; i++) {
+                    rows.add(new BookCopy(titleId));
+                }
+                bookCopyRepository.saveAll(rows);
+                bookTitleRepository.addCopies(titleId, copies);
+            });
+        }
+        return bookTitleRepository.findById(titleId).orElseThrow();
+    }
+
+    /**
+     * Issues a copy of the title with this ISBN. A title missing from the
+     * catalogue is added with a single copy when title and author are given,
+     * as issuing worked before there was a catalogue.
+     */
+    public IssueResult issue(User student, String isbn, String title, String author, LocalDate dueDate) {
+        BookTitle book = bookTitleRepository.findByIsbn(isbn).orElse(null);
+        if (book == null) {
+            if (title == null || title.isBlank() || author == null || author.isBlank()) {
+                return new IssueResult(Outcome.NOT_FOUND, null);
+            }
+            book = findOrCreateTitle(title, author, isbn);
+            if (book.getTotalCopies() == 0) {
+                book = addCopies(title, author, isbn, 1);
+            }
+        }
+        if (book.getAvailableCopies() <= 0) {
+            return new IssueResult(Outcome.UNAVAILABLE, null); // cheap early answer; the claim below decides
+        }
+
+        BookTitle catalogued = book;
+        return transactionTemplate.execute(status -> {
+            Long copyId = claimCopy(catalogued.getId());
+            if (copyId == null) {
+                return new IssueResult(Outcome.UNAVAILABLE, null);
+            }
+            Library issue = new Library();
+            issue.setStudent(student);
+            issue.setTitle(catalogued.getTitle());
+            issue.setAuthor(catalogued.getAuthor());
+            issue.setIsbn(catalogued.getIsbn());
+            issue.setBookTitleId(catalogued.getId());
+            issue.setCopyId(copyId);
+            issue.setDueDate(dueDate);
+            issue.setIssuedAt(LocalDate.now());
+            issue = libraryRepository.save(issue);
+
+            // Last, so the title row is only locked until the commit right after
+            if (bookTitleRepository.takeCopy(catalogued.getId()) == 0) {
+                status.setRollbackOnly(); // count and copies disagree; refuse rather than over-issue
+                return new IssueResult(Outcome.UNAVAILABLE, null);
+            }
+            return new IssueResult(Outcome.ISSUED, issue);
+        });
+    }
+
+    public Outcome returnIssue(Long issueId) {
+        return transactionTemplate.execute(status -> giveBack(issueId));
+    }
+
+    /** Deletes an issue record, putting its copy back on the shelf first if it was still out. */
+    public boolean deleteIssue(Long issueId) {
+        Boolean deleted = transactionTemplate.execute(status -> {
+            if (giveBack(issueId) == Outcome.NOT_FOUND) {
+                return false;
+            }
+            libraryRepository.deleteById(issueId);
+            return true;
+        });
+        return Boolean.TRUE.equals(deleted);
+    }
+
+    private Outcome giveBack(Long issueId) {
+        Library issue = libraryRepository.findById(issueId).orElse(null);
+        if (issue == null) {
+            return Outcome.NOT_FOUND;
+        }
+        if (libraryRepository.markReturned(issueId, LocalDateTime.now()) == 0) {
+            return Outcome.ALREADY_RETURNED;
+        }
+        if (issue.getCopyId() != null
+                && bookCopyRepository.changeStatus(issue.getCopyId(), BookCopy.CopyStatus.ISSUED, BookCopy.CopyStatus.AVAILABLE) == 1) {
+            bookTitleRepository.returnCopy(issue.getBookTitleId());
+        }
+        return Outcome.RETURNED;
+    }
+
+    private BookTitle findOrCreateTitle(String title, String author, String isbn) {
+        BookTitle book = bookTitleRepository.findByIsbn(isbn).orElse(null);
+        if (book != null) {
+            return book;
+        }
+        try {
+            book = transactionTemplate.execute(status -> createTitle(title, author, isbn));
+        } catch (DataIntegrityViolationException e) {
+            return bookTitleRepository.findByIsbn(isbn).orElseThrow(() -> e); // created concurrently
+        }
+        librarySearchService.onTitleSaved(book);
+        return book;
+    }
+
+    private BookTitle createTitle(String title, String author, String isbn) {
+        List<Long> onLoan = libraryRepository.findOpenIdsWithoutCopy(isbn);
+        BookTitle book = new BookTitle(title, author, isbn);
+        book.setTotalCopies(onLoan.size());
+        book.setAvailableCopies(0);
+        book = bookTitleRepository.saveAndFlush(book);
+        for (Long issueId : onLoan) {
+            BookCopy copy = new BookCopy(book.getId());
+            copy.setStatus(BookCopy.CopyStatus.ISSUED);
+            copy = bookCopyRepository.save(copy);
+            libraryRepository.linkCopy(issueId, book.getId(), copy.getId());
+        }
+        return book;
+    }
+
+    private Long claimCopy(Long titleId) {
+        Long afterId = 0L;
+        while (true) {
+            List<Long> ids = bookCopyRepository.findIdsByStatusAfter(titleId, BookCopy.CopyStatus.AVAILABLE, afterId,
+                    PageRequest.of(0, CLAIM_PAGE));
+            if (ids.isEmpty()) {
+                return null;
+            }
+            List<Long> candidates = new ArrayList<>(ids);
+            Collections.shuffle(candidates, ThreadLocalRandom.current());
+            for (Long id : candidates) {
+                if (bookCopyRepository.changeStatus(id, BookCopy.CopyStatus.AVAILABLE, BookCopy.CopyStatus.ISSUED) == 1) {
+                    return id;
+                }
+            }
+            // Everything in this page went to someone else; walk on rather than re-reading the same snapshot
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+}
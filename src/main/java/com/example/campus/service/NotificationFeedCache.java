@@ -0,0 +1,296 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Notification;
+import com.example.campus.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-process copy of the newest notifications, so feed reads normally do not
+ * touch the database.
+ *
+ * Broadcasts are held per role, already merged with ALL; notifications
+ * addressed to a single user are held per user and loaded on first read.
+ * Each partition is an immutable list swapped in whole, so readers never lock.
+ * All writes go through {@link #write(Supplier)}: the database change and the
+ * matching partition update happen under one lock, so partitions change in
+ * commit order. Partitions are also reloaded after the TTL as a safety net
+ * for rows changed outside this process.
+ */
+@Component
+public class NotificationFeedCache {
+
+    /** Newest-first snapshot; complete means it holds every matching row, not just the newest ones. */
+    record Partition(List<Notification> items, boolean complete, long loadedAt) {
+    }
+
+    /** Who a notification was visible to, captured before an update changes it. */
+    public record Audience(Notification.TargetRole role, Long targetUserId) {
+        public static Audience of(Notification notification) {
+            return new Audience(notification.getTargetRole(), notification.getTargetUserId());
+        }
+    }
+
+    private record Recipient(Notification.TargetRole role, Long userId) {
+    }
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private final int capacity;
+    private final long ttlNanos;
+    private final int maxPersonal;
+
+    private final Map<Notification.TargetRole, Partition> broadcasts = new ConcurrentHashMap<>();
+    private final Map<Recipient, Partition> personal = new ConcurrentHashMap<>();
+    // Bumped on every write touching personal notifications; a load that raced with one is not kept
+    private final AtomicLong personalEpoch = new AtomicLong();
+    private final Object writeLock = new Object();
+
+    public NotificationFeedCache(@Value("${campus.notifications.cache-size:200}") int capacity,
+                                 @Value("${campus.notifications.cache-ttl:5m}") Duration ttl,
+                                 @Value("${campus.notifications.cache-max-users:10000}") int maxPersonal) {
+        this.capacity = capacity;
+        this.ttlNanos = ttl.toNanos();
+        this.maxPersonal = maxPersonal;
+    }
+
+    /**
+     * Newest-first notifications visible to the user strictly before the cursor,
+     * or null when the cached window does not reach far enough back.
+     */
+    public List<Notification> read(Notification.TargetRole role, Long userId, LocalDateTime beforeAt, long beforeId,
+                                   int limit) {
+        List<Notification> shared = window(broadcast(role), beforeAt, beforeId, limit);
+        if (shared == null) {
+            return null;
+        }
+        if (userId == null) {
+            return shared;
+        }
+        List<Notification> own = window(personal(role, userId), beforeAt, beforeId, limit);
+        if (own == null) {
+            return null;
+        }
+        if (own.isEmpty()) {
+            return shared;
+        }
+        List<Notification> merged = new ArrayList<>(shared.size() + own.size());
+        merged.addAll(shared);
+        merged.addAll(own);
+        merged.sort(NotificationFeedService.NEWEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    /** Runs a database write and the matching cache update as one step with respect to other writers. */
+    public <T> T write(Supplier<T> action) {
+        synchronized (writeLock) {
+            return action.get();
+        }
+    }
+
+    /** Call from inside {@link #write} once the row is committed. {@code before} is null for inserts. */
+    public void onSaved(Audience before, Notification saved) {
+        Audience after = Audience.of(saved);
+        if (before != null && before.equals(after) && after.targetUserId() == null) {
+            for (Notification.TargetRole role : affectedRoles(after.role())) {
+                broadcasts.computeIfPresent(role, (r, p) -> replace(p, saved));
+            }
+            return;
+        }
+        if (before != null) {
+            remove(before, saved.getId());
+        }
+        if (after.targetUserId() != null) {
+            dropPersonal(after.targetUserId());
+        } else {
+            for (Notification.TargetRole role : affectedRoles(after.role())) {
+                broadcasts.computeIfPresent(role, (r, p) -> insert(p, saved));
+            }
+        }
+    }
+
+    /** Call from inside {@link #write} once the delete is committed. */
+    public void onDeleted(Audience audience, Long id) {
+        remove(audience, id);
+    }
+
+    public void invalidateAll() {
+        synchronized (writeLock) {
+            broadcasts.clear();
+            personal.clear();
+            personalEpoch.incrementAndGet();
+        }
+    }
+
+    private Partition broadcast(Notification.TargetRole role) {
+        Partition partition = broadcasts.get(role);
+        if (partition != null && !expired(partition)) {
+            return partition;
+        }
+        synchronized (writeLock) {
+            partition = broadcasts.get(role);
+            if (partition == null || expired(partition)) {
+                partition = loadBroadcast(role);
+                broadcasts.put(role, partition);
+            }
+            return partition;
+        }
+    }
+
+    private Partition personal(Notification.TargetRole role, Long userId) {
+        Recipient recipient = new Recipient(role, userId);
+        Partition partition = personal.get(recipient);
+        if (partition != null && !expired(partition)) {
+            return partition;
+        }
+        long epoch = personalEpoch.get();
+        List<Notification> rows = notificationRepository.findPersonalPage(role, userId, NotificationFeedService.END_OF_TIME,
+                Long.MAX_VALUE, PageRequest.of(0, capacity));
+        partition = new Partition(copyAll(rows), rows.size() < capacity, System.nanoTime());
+        synchronized (writeLock) {
+            if (personalEpoch.get() == epoch) {
+                if (personal.size() >= maxPersonal) {
+                    personal.values().removeIf(this::expired);
+                    if (personal.size() >= maxPersonal) {
+                        personal.clear();
+                    }
+                }
+                personal.put(recipient, partition);
+            }
+        }
+        return partition;
+    }
+
+    private Partition loadBroadcast(Notification.TargetRole role) {
+        PageRequest page = PageRequest.of(0, capacity);
+        List<Notification> own = notificationRepository.findBroadcastPage(role, NotificationFeedService.END_OF_TIME,
+                Long.MAX_VALUE, page);
+        List<Notification> merged = new ArrayList<>(own);
+        boolean complete = own.size() < capacity;
+        if (role != Notification.TargetRole.ALL) {
+            List<Notification> all = notificationRepository.findBroadcastPage(Notification.TargetRole.ALL,
+                    NotificationFeedService.END_OF_TIME, Long.MAX_VALUE, page);
+            merged.addAll(all);
+            complete &= all.size() < capacity;
+        }
+        merged.sort(NotificationFeedService.NEWEST_FIRST);
+        if (merged.size() > capacity) {
+            merged = merged.subList(0, capacity);
+            complete = false;
+        }
+        return new Partition(copyAll(merged), complete, System.nanoTime());
+    }
+
+    private void remove(Audience audience, Long id) {
+        if (audience.targetUserId() != null) {
+            dropPersonal(audience.targetUserId());
+            return;
+        }
+        for (Notification.TargetRole role : affectedRoles(audience.role())) {
+            broadcasts.computeIfPresent(role, (r, p) -> {
+                List<Notification> items = new ArrayList<>(p.items());
+                if (!items.removeIf(n -> n.getId().equals(id))) {
+                    return p;
+                }
+                // A window that has shrunk too far is reloaded on the next read instead
+                if (!p.complete() && items.size() < capacity / 2) {
+                    return null;
+                }
+                return new Partition(List.copyOf(items), p.complete(), p.loadedAt());
+            });
+        }
+    }
+
+    private void dropPersonal(Long userId) {
+        personalEpoch.incrementAndGet();
+        for (Notification.TargetRole role : Notification.TargetRole.values()) {
+            personal.remove(new Recipient(role, userId));
+        }
+    }
+
+    private Partition insert(Partition partition, Notification notification) {
+        List<Notification> items = new ArrayList<>(partition.items());
+        int at = Collections.binarySearch(items, notification, NotificationFeedService.NEWEST_FIRST);
+        at = at < 0 ? -at - 1 : at;
+        if (at == items.size() && !partition.complete()) {
+            return partition; // older than everything held, outside the window
+        }
+        items.add(at, copy(notification));
+        boolean complete = partition.complete();
+        if (items.size() > capacity) {
+            items.remove(items.size() - 1);
+            complete = false;
+        }
+        return new Partition(List.copyOf(items), complete, partition.loadedAt());
+    }
+
+    private Partition replace(Partition partition, Notification notification) {
+        List<Notification> items = new ArrayList<>(partition.items());
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getId().equals(notification.getId())) {
+                items.set(i, copy(notification));
+                return new Partition(List.copyOf(items), partition.complete(), partition.loadedAt());
+            }
+        }
+        return partition;
+    }
+
+    private Collection<Notification.TargetRole> affectedRoles(Notification.TargetRole role) {
+        if (role == null) {
+            return List.of();
+        }
+        // ALL broadcasts are merged into every role's partition
+        return role == Notification.TargetRole.ALL ? new ArrayList<>(broadcasts.keySet()) : List.of(role);
+    }
+
+    private boolean expired(Partition partition) {
+        return System.nanoTime() - partition.loadedAt() > ttlNanos;
+    }
+
+    private static List<Notification> window(Partition partition, LocalDateTime beforeAt, long beforeId, int limit) {
+        List<Notification> items = partition.items();
+        Notification cursor = new Notification();
+        cursor.setCreatedAt(beforeAt);
+        cursor.setId(beforeId);
+        int from = Collections.binarySearch(items, cursor, NotificationFeedService.NEWEST_FIRST);
+        from = from < 0 ? -from - 1 : from + 1;
+        int available = items.size() - from;
+        if (available < limit && !partition.complete()) {
+            return null;
+        }
+        return items.subList(from, from + Math.min(limit, available));
+    }
+
+    private static List<Notification> copyAll(List<Notification> notifications) {
+        List<Notification> copies = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            copies.add(copy(notification));
+        }
+        return List.copyOf(copies);
+    }
+
+    // Cached rows are detached copies so later changes to a managed entity cannot leak in
+    private static Notification copy(Notification source) {
+        Notification copy = new Notification();
+        copy.setId(source.getId());
+        copy.setTitle(source.getTitle());
+        copy.setMessage(source.getMessage());
+        copy.setCreatedBy(source.getCreatedBy());
+        copy.setTargetRole(source.getTargetRole());
+        copy.setTargetUserId(source.getTargetUserId());
+        copy.setIsRead(source.getIsRead());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Notification;
+import com.example.campus.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cursor-paginated notification feed for one user.
+ *
+ * A user's feed is the union of three streams: broadcasts to their role,
+ * broadcasts to ALL and notifications addressed to them. Each stream is an
+ * ordered range scan on the (target_role, target_user_id, created_at, id)
+ * index with the LIMIT applied in the database; the streams are merged here.
+ * Cursors are "createdAt,id" of the last row returned, so a page never costs
+ * more than three short index scans however long the history is, and the
+ * recent pages are normally answered by {@link NotificationFeedCache} without
+ * a query at all.
+ */
+@Service
+public class NotificationFeedService {
+
+    public static final int MAX_LIMIT = 100;
+
+    static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    // Newest first, ties broken by id, matching the ORDER BY of the page queries
+    public static final Comparator<Notification> NEWEST_FIRST = Comparator
+            .comparing(Notification::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Notification::getId, Comparator.reverseOrder());
+
+    public record FeedPage(List<Notification> items, String nextCursor) {
+    }
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationFeedCache feedCache;
+
+    /** The newest {@code limit} notifications, for dashboards; no look-ahead row is read. */
+    public List<Notification> latest(Notification.TargetRole role, Long userId, int limit) {
+        return read(role, userId, END_OF_TIME, Long.MAX_VALUE, limit);
+    }
+
+    /**
+     * One page strictly older than {@code before} (null for the first page).
+     * nextCursor is null once the feed is exhausted.
+     */
+    public FeedPage page(Notification.TargetRole role, Long userId, String before, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        LocalDateTime beforeAt = END_OF_TIME;
+        long beforeId = Long.MAX_VALUE;
+        if (before != null && !before.isBlank()) {
+            int comma = before.lastIndexOf(',');
+            try {
+                beforeAt = LocalDateTime.parse(before.substring(0, comma).trim());
+                beforeId = Long.parseLong(before.substring(comma + 1).trim());
+            } catch (StringIndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor, expected <createdAt>,<id>");
+            }
+        }
+
+        // One extra row tells whether there is a next page
+        List<Notification> rows = read(role, userId, beforeAt, beforeId, size + 1);
+        if (rows.size() <= size) {
+            return new FeedPage(rows, null);
+        }
+        List<Notification> items = rows.subList(0, size);
+        return new FeedPage(items, cursorOf(items.get(size - 1)));
+    }
+
+    public static String cursorOf(Notification notification) {
+        return notification.getCreatedAt() + "," + notification.getId();
+    }
+
+    private List<Notification> read(Notification.TargetRole role, Long userId, LocalDateTime beforeAt, long beforeId,
+                                    int limit) {
+        List<Notification> cached = feedCache.read(role, userId, beforeAt, beforeId, limit);
+        return cached != null ? cached : fetch(role, userId, beforeAt, beforeId, limit);
+    }
+
+    private List<Notification> fetch(Notification.TargetRole role, Long userId, LocalDateTime beforeAt, long beforeId,
+                                     int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<Notification> merged = new ArrayList<>(limit * 3);
+        merged.addAll(notificationRepository.findBroadcastPage(role, beforeAt, beforeId, page));
+        if (role != Notification.TargetRole.ALL) {
+            merged.addAll(notificationRepository.findBroadcastPage(Notification.TargetRole.ALL, beforeAt, beforeId, page));
+        }
+        if (userId != null) {
+            merged.addAll(notificationRepository.findPersonalPage(role, userId, beforeAt, beforeId, page));
+        }
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Notification;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans new notifications out to connected Server-Sent Events clients.
+ *
+ * Connections are async servlet requests, so an idle client costs an entry in
+ * a map and no thread. Publishing only appends to each matching client's
+ * bounded queue; a small shared pool drains the queues, so a slow client never
+ * holds up the publisher or other clients. A client whose queue overflows is
+ * disconnected and resumes from the replay ring with Last-Event-ID. Event ids
+ * are notification ids, which increase in commit order because notifications
+ * are written one at a time through {@link NotificationService}.
+ */
+@Component
+public class NotificationHub {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationHub.class);
+
+    /** Heartbeat marker queued like an event so it is written by the same drain as the data. */
+    private static final Object HEARTBEAT = new Object();
+
+    private final long timeoutMillis;
+    private final int queueCapacity;
+    private final int replaySize;
+
+    private final Map<Long, Client> clients = new ConcurrentHashMap<>();
+    private final AtomicLong clientIds = new AtomicLong();
+    // Last published notifications, oldest first, for Last-Event-ID resume
+    private final ArrayDeque<Notification> replay = new ArrayDeque<>();
+    private final ExecutorService senders;
+
+    public NotificationHub(@Value("${campus.notifications.stream.timeout:30m}") Duration timeout,
+                           @Value("${campus.notifications.stream.queue-capacity:64}") int queueCapacity,
+                           @Value("${campus.notifications.stream.replay-size:1024}") int replaySize,
+                           @Value("${campus.notifications.stream.sender-threads:4}") int senderThreads) {
+        this.timeoutMillis = timeout.toMillis();
+        this.queueCapacity = queueCapacity;
+        this.replaySize = replaySize;
+        this.senders = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread thread = new Thread(r, "notification-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        clients.values().forEach(client -> client.emitter.complete());
+        clients.clear();
+    }
+
+    /**
+     * Registers a stream for a user. If {@code lastEventId} is given, every
+     * visible notification published after it is replayed first; if it is older
+     * than the replay ring a "resync" event tells the client to reload its feed.
+     */
+    public SseEmitter connect(Notification.TargetRole role, Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Client client = new Client(clientIds.incrementAndGet(), role, userId, emitter);
+        emitter.onCompletion(() -> clients.remove(client.id));
+        emitter.onTimeout(() -> clients.remove(client.id));
+        emitter.onError(e -> clients.remove(client.id));
+
+        synchronized (replay) {
+            // Registering under the ring lock means nothing is published between the replay and going live
+            if (lastEventId != null) {
+                List<Notification> missed = new ArrayList<>();
+                for (Notification notification : replay) {
+                    if (notification.getId() > lastEventId && client.canSee(notification)) {
+                        missed.add(notification);
+                    }
+                }
+                // The ring may not reach back to the client's last event (eviction or a restart);
+                // ids have gaps, so err on the side of asking the client to reload its feed
+                Notification oldest = replay.peekFirst();
+                if (oldest == null || oldest.getId() > lastEventId + 1 || missed.size() > queueCapacity / 2) {
+                    client.offer(SseEmitter.event().name("resync").data(Map.of("reason", "history not buffered")));
+                } else {
+                    missed.forEach(client::offer);
+                }
+            }
+            clients.put(client.id, client);
+        }
+        client.offer(SseEmitter.event().comment("connected"));
+        schedule(client);
+        return emitter;
+    }
+
+    public void publish(Notification notification) {
+        synchronized (replay) {
+            replay.addLast(notification);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Client client : clients.values()) {
+                if (client.canSee(notification)) {
+                    client.offer(notification);
+                    schedule(client);
+                }
+            }
+        }
+    }
+
+    public int connectedClients() {
+        return clients.size();
+    }
+
+    // Keeps proxies from closing idle streams and flushes out dead connections
+    @Scheduled(fixedRateString = "${campus.notifications.stream.heartbeat:15s}")
+    public void heartbeat() {
+        for (Client client : clients.values()) {
+            client.offer(HEARTBEAT);
+            schedule(client);
+        }
+    }
+
+    private void schedule(Client client) {
+        if (!client.queue.isEmpty() && client.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(client));
+            } catch (RejectedExecutionException e) {
+                client.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Client client) {
+        try {
+            Object item;
+            while ((item = client.queue.poll()) != null) {
+                if (item == HEARTBEAT) {
+                    client.emitter.send(SseEmitter.event().comment("ping"));
+                } else if (item instanceof Notification notification) {
+                    client.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(notification.getId()))
+                            .name("notification")
+                            .data(notification));
+                } else {
+                    client.emitter.send((SseEmitter.SseEventBuilder) item);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter callbacks remove it
+            clients.remove(client.id);
+            client.emitter.completeWithError(e);
+            return;
+        } finally {
+            client.draining.set(false);
+        }
+        // Something may have been queued after the last poll but before the flag was released
+        schedule(client);
+    }
+
+    private final class Client {
+        final long id;
+        final Notification.TargetRole role;
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Client(long id, Notification.TargetRole role, Long userId, SseEmitter emitter) {
+            this.id = id;
+            this.role = role;
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        boolean canSee(Notification notification) {
+            if (notification.getTargetUserId() != null) {
+                return notification.getTargetUserId().equals(userId);
+            }
+            return notification.getTargetRole() == role || notification.getTargetRole() == Notification.TargetRole.ALL;
+        }
+
+        void offer(Object item) {
+            if (!queue.offer(item) && item != HEARTBEAT) {
+                // Too far behind: drop the connection, the browser reconnects with Last-Event-ID
+                log.debug("Notification stream client {} overflowed, disconnecting", id);
+                clients.remove(id);
+                emitter.complete();
+            }
+        }
+    }
+}
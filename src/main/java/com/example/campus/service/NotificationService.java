@@ -0,0 +1,92 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Notification;
+import com.example.campus.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The one place notifications are created, changed and deleted, so the feed
+ * cache is kept in step with the table. Writes are rare (a few a day plus the
+ * sweeper batches) and are serialised through {@link NotificationFeedCache#write};
+ * new notifications are also pushed to live streams via {@link NotificationHub}
+ * and every change is mirrored into the {@link SearchIndexService}.
+ */
+@Service
+public class NotificationService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationFeedCache feedCache;
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Autowired
+    private ReadReceiptService readReceiptService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    public Notification create(Notification notification) {
+        return feedCache.write(() -> {
+            Notification saved = notificationRepository.save(notification);
+            feedCache.onSaved(null, saved);
+            readReceiptService.onCreated(saved);
+            notificationHub.publish(saved);
+            searchIndexService.index(saved);
+            return saved;
+        });
+    }
+
+    public List<Notification> createAll(List<Notification> notifications) {
+        return feedCache.write(() -> {
+            List<Notification> saved = notificationRepository.saveAll(notifications);
+            for (Notification notification : saved) {
+                feedCache.onSaved(null, notification);
+                readReceiptService.onCreated(notification);
+                notificationHub.publish(notification);
+                searchIndexService.index(notification);
+            }
+            return saved;
+        });
+    }
+
+    /** Applies {@code changes} to the stored notification; returns null if it does not exist. */
+    public Notification update(Long id, Consumer<Notification> changes) {
+        return feedCache.write(() -> {
+            Notification notification = notificationRepository.findById(id).orElse(null);
+            if (notification == null) {
+                return null;
+            }
+            NotificationFeedCache.Audience before = NotificationFeedCache.Audience.of(notification);
+            changes.accept(notification);
+            Notification saved = notificationRepository.save(notification);
+            feedCache.onSaved(before, saved);
+            if (!before.equals(NotificationFeedCache.Audience.of(saved))) {
+                readReceiptService.onAudienceChanged(before, saved);
+            }
+            searchIndexService.index(saved);
+            return saved;
+        });
+    }
+
+    public boolean delete(Long id) {
+        return feedCache.write(() -> {
+            Notification notification = notificationRepository.findById(id).orElse(null);
+            if (notification == null) {
+                return false;
+            }
+            notificationRepository.delete(notification);
+            feedCache.onDeleted(NotificationFeedCache.Audience.of(notification), notification.getId());
+            readReceiptService.onDeleted(NotificationFeedCache.Audience.of(notification), notification.getId());
+            searchIndexService.remove(SearchIndexService.Type.NOTIFICATION, notification.getId());
+            return true;
+        });
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Fee;
+import com.example.campus.entity.Notification;
+import com.example.campus.repository.FeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves PENDING fees whose due date has passed to OVERDUE.
+ *
+ * Candidates are walked in (due_date, id) order over the (status, due_date)
+ * index, a chunk at a time, and every chunk is flipped in its own short
+ * transaction so no lock is held across the table. Each affected student gets
+ * one notification per run, however many of their fees were flipped.
+ */
+@Service
+public class OverdueFeeSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueFeeSweeper.class);
+
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private FeeRepository feeRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Value("${campus.fees.overdue-sweep.chunk-size:500}")
+    private int chunkSize;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock running = new ReentrantLock();
+
+    private volatile Map<String, Object> lastRun = Map.of();
+    private volatile LocalDateTime lastFinishedAt;
+
+    public OverdueFeeSweeper(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${campus.fees.overdue-sweep.cron:0 5 * * * *}")
+    public void scheduledRun() {
+        try {
+            sweep();
+        } catch (Exception e) {
+            log.error("Overdue fee sweep failed", e);
+        }
+    }
+
+    /** Runs one sweep. Returns an empty map if a sweep is already in progress. */
+    public Map<String, Object> sweep() {
+        if (!running.tryLock()) {
+            return Map.of();
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+
+            Map<Long, Integer> flippedByStudent = new HashMap<>();
+            LocalDateTime afterDue = START;
+            Long afterId = 0L;
+            LocalDateTime oldestDue = null;
+            long flipped = 0;
+            int chunks = 0;
+
+            while (true) {
+                List<Object[]> candidates = feeRepository.findPastDueAfter(Fee.PaymentStatus.PENDING, now,
+                        afterDue, afterId, PageRequest.of(0, chunkSize));
+                if (candidates.isEmpty()) {
+                    break;
+                }
+
+                List<Long> ids = new ArrayList<>(candidates.size());
+                for (Object[] row : candidates) {
+                    ids.add((Long) row[0]);
+                }
+                // Fees paid between the SELECT and the UPDATE are skipped by it, so only what it flipped counts
+                List<Long> flippedIds = transactionTemplate.execute(status -> {
+                    List<Long> pending = feeRepository.lockStillPending(ids, Fee.PaymentStatus.PENDING);
+                    if (!pending.isEmpty()) {
+                        feeRepository.markOverdue(pending, Fee.PaymentStatus.PENDING, Fee.PaymentStatus.OVERDUE, now);
+                    }
+                    return pending;
+                });
+                Set<Long> flippedSet = new HashSet<>(flippedIds != null ? flippedIds : List.of());
+                flipped += flippedSet.size();
+                chunks++;
+
+                for (Object[] row : candidates) {
+                    if (!flippedSet.contains((Long) row[0])) {
+                        continue;
+                    }
+                    flippedByStudent.merge((Long) row[1], 1, Integer::sum);
+                    if (oldestDue == null) {
+                        oldestDue = (LocalDateTime) row[2];
+                    }
+                }
+
+                Object[] last = candidates.get(candidates.size() - 1);
+                afterDue = (LocalDateTime) last[2];
+                afterId = (Long) last[0];
+                if (candidates.size() < chunkSize) {
+                    break;
+                }
+            }
+
+            if (!flippedByStudent.isEmpty()) {
+                notifyStudents(flippedByStudent);
+                feeLedgerService.invalidate(flippedByStudent.keySet());
+                adminStatsService.invalidate();
+            }
+
+            long elapsedNanos = System.nanoTime() - started;
+            LocalDateTime finishedAt = LocalDateTime.now();
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("startedAt", now.toString());
+            report.put("finishedAt", finishedAt.toString());
+            report.put("rowsUpdated", flipped);
+            report.put("chunks", chunks);
+            report.put("studentsNotified", flippedByStudent.size());
+            report.put("durationMillis", elapsedNanos / 1_000_000);
+            report.put("rowsPerSecond", elapsedNanos > 0 ? Math.round(flipped * 1e9 / elapsedNanos) : 0);
+            // How long the most overdue fee in this run sat as PENDING after its due date
+            report.put("maxFlipLagSeconds", oldestDue != null ? Duration.between(oldestDue, now).toSeconds() : 0);
+            lastRun = report;
+            lastFinishedAt = finishedAt;
+
+            if (flipped > 0) {
+                log.info("Overdue fee sweep: {}", report);
+            }
+            return report;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    /** Figures from the last completed sweep plus how long ago it finished. */
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>(lastRun);
+        LocalDateTime finishedAt = lastFinishedAt;
+        status.put("running", running.isLocked());
+        status.put("lastRunLagSeconds", finishedAt != null ? Duration.between(finishedAt, LocalDateTime.now()).toSeconds() : null);
+        return status;
+    }
+
+    private void notifyStudents(Map<Long, Integer> flippedByStudent) {
+        List<Notification> batch = new ArrayList<>(chunkSize);
+        for (Map.Entry<Long, Integer> entry : flippedByStudent.entrySet()) {
+            int count = entry.getValue();
+            Notification notification = new Notification();
+            notification.setTitle("Fee payment overdue");
+            notification.setMessage(count == 1
+                    ? "One of your fees is now overdue. Please clear it as soon as possible."
+                    : count + " of your fees are now overdue. Please clear them as soon as possible.");
+            notification.setCreatedBy("system");
+            notification.setTargetRole(Notification.TargetRole.STUDENT);
+            notification.setTargetUserId(entry.getKey());
+            batch.add(notification);
+
+            if (batch.size() == chunkSize) {
+                saveNotifications(batch);
+                batch = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveNotifications(batch);
+        }
+    }
+
+    private void saveNotifications(List<Notification> batch) {
+        // Not wrapped in a transaction here: the feed cache must only see committed rows
+        notificationService.createAll(batch);
+    }
+}
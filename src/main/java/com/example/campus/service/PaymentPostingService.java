@@ -0,0 +1,122 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Fee;
+import com.example.campus.repository.FeeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records a payment against a fee.
+ *
+ * Each attempt is a short read-check-write transaction guarded by the fee's
+ * version column; when another writer got there first the attempt is retried
+ * from a fresh read, so the decision is always made against the latest state.
+ * No row lock is held between the read and the write.
+ */
+@Service
+public class PaymentPostingService {
+
+    public enum Outcome {
+        POSTED,          // this call marked the fee PAID
+        ALREADY_POSTED,  // the same transaction id was already recorded on this fee
+        REJECTED,        // cancelled, paid by another transaction or amount mismatch
+        NOT_FOUND
+    }
+
+    public record PaymentResult(Outcome outcome, String message, Fee fee, int attempts) {
+    }
+
+    @Autowired
+    private FeeRepository feeRepository;
+
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Value("${campus.fees.payment.max-attempts:5}")
+    private int maxAttempts;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentPostingService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public PaymentResult post(Long feeId, BigDecimal amount, String paymentMethod, String transactionId,
+                              LocalDateTime paidAt) {
+        if (transactionId == null || transactionId.isBlank()) {
+            throw new IllegalArgumentException("transactionId is required");
+        }
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("amount must be positive");
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                int attempts = attempt;
+                PaymentResult result = transactionTemplate.execute(status ->
+                        apply(feeId, amount, paymentMethod, transactionId, paidAt, attempts));
+                if (result != null && result.outcome() == Outcome.POSTED) {
+                    feeLedgerService.invalidate(result.fee().getStudentId());
+                    adminStatsService.invalidate();
+                }
+                return result;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(attempt);
+            } catch (DataIntegrityViolationException e) {
+                // transaction_id is unique: this payment was already recorded on another fee
+                return new PaymentResult(Outcome.REJECTED, "Transaction id already used for another fee", null, attempt);
+            }
+        }
+    }
+
+    private PaymentResult apply(Long feeId, BigDecimal amount, String paymentMethod, String transactionId,
+                                LocalDateTime paidAt, int attempt) {
+        Fee fee = feeRepository.findById(feeId).orElse(null);
+        if (fee == null) {
+            return new PaymentResult(Outcome.NOT_FOUND, "Fee not found", null, attempt);
+        }
+        if (fee.getStatus() == Fee.PaymentStatus.PAID) {
+            return Objects.equals(fee.getTransactionId(), transactionId)
+                    ? new PaymentResult(Outcome.ALREADY_POSTED, "Payment already recorded", fee, attempt)
+                    : new PaymentResult(Outcome.REJECTED, "Fee already paid by transaction " + fee.getTransactionId(), fee, attempt);
+        }
+        if (fee.getStatus() == Fee.PaymentStatus.CANCELLED) {
+            return new PaymentResult(Outcome.REJECTED, "Fee is cancelled", fee, attempt);
+        }
+        if (fee.getAmount().compareTo(amount) != 0) {
+            return new PaymentResult(Outcome.REJECTED, "Amount does not match fee amount " + fee.getAmount(), fee, attempt);
+        }
+
+        fee.setStatus(Fee.PaymentStatus.PAID);
+        fee.setPaidDate(paidAt != null ? paidAt : LocalDateTime.now());
+        fee.setPaymentMethod(paymentMethod);
+        fee.setTransactionId(transactionId);
+        // Flush inside the transaction so a version conflict surfaces here and is retried
+        return new PaymentResult(Outcome.POSTED, "Payment recorded", feeRepository.saveAndFlush(fee), attempt);
+    }
+
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L << Math.min(attempt, 5)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying payment", e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.AssignmentSubmission;
+import com.example.campus.repository.AssignmentSubmissionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-faculty count of submissions waiting to be graded (SUBMITTED or LATE)
+ * on the assignments they created.
+ *
+ * A faculty member's count is loaded with one aggregate the first time it is
+ * asked for and then adjusted in memory as submissions arrive, are graded or
+ * go away with their assignment. Loads run without a lock and are only
+ * installed if no adjustment happened meanwhile, so a load racing a submit
+ * can never double-count it.
+ */
+@Service
+public class PendingReviewCounter {
+
+    static final List<AssignmentSubmission.SubmissionStatus> PENDING = List.of(
+            AssignmentSubmission.SubmissionStatus.SUBMITTED, AssignmentSubmission.SubmissionStatus.LATE);
+
+    @Autowired
+    private AssignmentSubmissionRepository submissionRepository;
+
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+    private final Object lock = new Object();
+
+    public long pendingFor(String faculty) {
+        AtomicLong count = counts.get(faculty);
+        if (count != null) {
+            return count.get();
+        }
+        long seen = epoch.get();
+        long loaded = submissionRepository.countByFacultyAndStatusIn(faculty, PENDING);
+        synchronized (lock) {
+            if (epoch.get() == seen) {
+                counts.putIfAbsent(faculty, new AtomicLong(loaded));
+            }
+        }
+        return loaded;
+    }
+
+    /** A first submission (not a resubmission) to one of the faculty's assignments. */
+    public void onSubmitted(String faculty) {
+        adjust(faculty, 1);
+    }
+
+    public void onGraded(String faculty, long graded) {
+        adjust(faculty, -graded);
+    }
+
+    /** Pending submissions that stop counting because their assignment was deleted. */
+    public void onAssignmentDeleted(String faculty, long pending) {
+        adjust(faculty, -pending);
+    }
+
+    /** Forgets every loaded count; each is reloaded on its next read. */
+    public void invalidateAll() {
+        synchronized (lock) {
+            epoch.incrementAndGet();
+            counts.clear();
+        }
+    }
+
+    private void adjust(String faculty, long delta) {
+        if (faculty == null || delta == 0) {
+            return;
+        }
+        synchronized (lock) {
+            epoch.incrementAndGet();
+            AtomicLong count = counts.get(faculty);
+            if (count != null) {
+                count.addAndGet(delta);
+            }
+        }
+    }
+}
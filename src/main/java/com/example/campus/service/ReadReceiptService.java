@@ -0,0 +1,399 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Notification;
+import com.example.campus.entity.NotificationRead;
+import com.example.campus.entity.NotificationReadMark;
+import com.example.campus.repository.NotificationReadMarkRepository;
+import com.example.campus.repository.NotificationReadRepository;
+import com.example.campus.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user read state for notifications.
+ *
+ * Each user has a high-water mark (everything visible up to that id is read)
+ * plus the few ids read out of order above it, so storage stays at one row per
+ * user plus the exceptions, not one row per user and notification. Unread
+ * counts are kept in memory per user: they are computed once from sorted id
+ * indexes and then adjusted as notifications are created, moved or deleted
+ * (hooks called by {@link NotificationService} under the feed write lock) and
+ * as the user marks things read, so reading the count is constant time.
+ */
+@Service
+public class ReadReceiptService {
+
+    public static final int MAX_IDS_PER_REQUEST = 1000;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationReadMarkRepository markRepository;
+
+    @Autowired
+    private NotificationReadRepository readRepository;
+
+    @Autowired
+    private NotificationFeedCache feedCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Broadcast ids visible to each role (its own plus ALL), loaded on first use
+    private final Map<Notification.TargetRole, SortedIds> roleIndexes = new ConcurrentHashMap<>();
+    private final Map<Long, UserState> users = new ConcurrentHashMap<>();
+    // Bumped by every hook; a state load that raced with one is redone
+    private final AtomicLong epoch = new AtomicLong();
+
+    public ReadReceiptService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public int unreadCount(Notification.TargetRole role, Long userId) {
+        UserState state = state(role, userId);
+        synchronized (state) {
+            return state.unread;
+        }
+    }
+
+    public boolean isRead(Notification.TargetRole role, Long userId, Long notificationId) {
+        UserState state = state(role, userId);
+        synchronized (state) {
+            return notificationId <= state.mark || state.exceptions.contains(notificationId);
+        }
+    }
+
+    /** Marks the given notifications read; ids the user cannot see are ignored. Returns the new unread count. */
+    public int markRead(Notification.TargetRole role, Long userId, Collection<Long> ids) {
+        UserState state = state(role, userId);
+        synchronized (state) {
+            Set<Long> fresh = new TreeSet<>();
+            for (Long id : ids) {
+                if (id != null && id > state.mark && !state.exceptions.contains(id) && state.visible(id)) {
+                    fresh.add(id);
+                }
+            }
+            if (!fresh.isEmpty()) {
+                TreeSet<Long> read = new TreeSet<>(state.exceptions);
+                read.addAll(fresh);
+                advance(state, state.mark, read);
+            }
+            return state.unread;
+        }
+    }
+
+    /**
+     * Marks everything up to and including {@code upTo} read, or everything when upTo is null. The mark never
+     * moves past the newest notification the user can see, so later notifications still arrive unread.
+     */
+    public int markReadUpTo(Notification.TargetRole role, Long userId, Long upTo) {
+        if (upTo != null && upTo < 0) {
+            throw new IllegalArgumentException("upTo must not be negative");
+        }
+        UserState state = state(role, userId);
+        synchronized (state) {
+            long target = upTo != null ? Math.min(upTo, state.maxVisible()) : state.maxVisible();
+            if (target > state.mark) {
+                advance(state, target, new TreeSet<>(state.exceptions));
+            }
+            return state.unread;
+        }
+    }
+
+    // --- hooks, called by NotificationService inside NotificationFeedCache.write ---
+
+    public void onCreated(Notification notification) {
+        epoch.incrementAndGet();
+        addToAudience(NotificationFeedCache.Audience.of(notification), notification.getId());
+    }
+
+    public void onAudienceChanged(NotificationFeedCache.Audience before, Notification after) {
+        epoch.incrementAndGet();
+        removeFromAudience(before, after.getId(), false);
+        addToAudience(NotificationFeedCache.Audience.of(after), after.getId());
+    }
+
+    public void onDeleted(NotificationFeedCache.Audience audience, Long id) {
+        epoch.incrementAndGet();
+        transactionTemplate.executeWithoutResult(status -> readRepository.deleteByNotificationId(id));
+        removeFromAudience(audience, id, true);
+    }
+
+    /** Archived rows disappear from feeds; their read rows are removed by the archival batch itself. */
+    public void onArchived(NotificationFeedCache.Audience audience, Long id) {
+        epoch.incrementAndGet();
+        removeFromAudience(audience, id, true);
+    }
+
+    private void addToAudience(NotificationFeedCache.Audience audience, long id) {
+        if (audience.targetUserId() != null) {
+            UserState state = users.get(audience.targetUserId());
+            if (state != null && state.role == audience.role()) {
+                synchronized (state) {
+                    state.personal = state.personal.with(id);
+                    if (id > state.mark && !state.exceptions.contains(id)) {
+                        state.unread++;
+                    }
+                }
+            }
+            return;
+        }
+        for (Notification.TargetRole role : rolesSeeing(audience.role())) {
+            roleIndexes.computeIfPresent(role, (r, index) -> index.with(id));
+        }
+        for (UserState state : users.values()) {
+            if (sees(state.role, audience.role())) {
+                synchronized (state) {
+                    state.shared = roleIndexes.get(state.role);
+                    if (id > state.mark && !state.exceptions.contains(id)) {
+                        state.unread++;
+                    }
+                }
+            }
+        }
+    }
+
+    private void removeFromAudience(NotificationFeedCache.Audience audience, long id, boolean forget) {
+        if (audience.targetUserId() != null) {
+            UserState state = users.get(audience.targetUserId());
+            if (state != null && state.role == audience.role()) {
+                synchronized (state) {
+                    state.personal = state.personal.without(id);
+                    forgetFor(state, id, forget);
+                }
+            }
+            return;
+        }
+        for (Notification.TargetRole role : rolesSeeing(audience.role())) {
+            roleIndexes.computeIfPresent(role, (r, index) -> index.without(id));
+        }
+        for (UserState state : users.values()) {
+            if (sees(state.role, audience.role())) {
+                synchronized (state) {
+                    state.shared = roleIndexes.get(state.role);
+                    forgetFor(state, id, forget);
+                }
+            }
+        }
+    }
+
+    private static void forgetFor(UserState state, long id, boolean forget) {
+        if (id <= state.mark) {
+            return;
+        }
+        // After an audience change the exception is kept in case the notification becomes visible again
+        boolean wasRead = forget ? state.exceptions.remove(id) : state.exceptions.contains(id);
+        if (!wasRead) {
+            state.unread--;
+        }
+    }
+
+    // --- state ---
+
+    private UserState state(Notification.TargetRole role, Long userId) {
+        UserState state = users.get(userId);
+        if (state != null && state.role == role) {
+            return state;
+        }
+        while (true) {
+            long seen = epoch.get();
+            SortedIds shared = roleIndex(role);
+            long mark = markRepository.findById(userId).map(NotificationReadMark::getReadUpTo).orElse(0L);
+            SortedIds personal = SortedIds.of(notificationRepository.findPersonalIds(role, userId));
+            TreeSet<Long> exceptions = new TreeSet<>();
+            for (Long id : readRepository.findNotificationIdsByUserId(userId)) {
+                if (id > mark) {
+                    exceptions.add(id);
+                }
+            }
+            UserState loaded = new UserState(userId, role, shared, personal, mark, exceptions);
+
+            UserState installed = feedCache.write(() -> {
+                if (epoch.get() != seen) {
+                    return null;
+                }
+                users.put(userId, loaded);
+                return loaded;
+            });
+            if (installed != null) {
+                return installed;
+            }
+        }
+    }
+
+    private SortedIds roleIndex(Notification.TargetRole role) {
+        SortedIds index = roleIndexes.get(role);
+        if (index != null) {
+            return index;
+        }
+        return feedCache.write(() -> roleIndexes.computeIfAbsent(role,
+                r -> SortedIds.of(notificationRepository.findBroadcastIdsVisibleTo(r))));
+    }
+
+    /**
+     * Moves the mark to at least {@code target}, then on past any run of ids
+     * already read, and persists the result. {@code read} holds every id above
+     * the old mark that is now read.
+     */
+    private void advance(UserState state, long target, TreeSet<Long> read) {
+        long mark = Math.max(state.mark, target);
+        long next;
+        while ((next = state.nextVisibleAbove(mark)) != Long.MAX_VALUE && read.contains(next)) {
+            mark = next;
+        }
+        long newMark = mark;
+        SortedSet<Long> exceptions = read.tailSet(newMark + 1);
+        List<NotificationRead> inserts = new ArrayList<>();
+        for (Long id : exceptions) {
+            if (!state.exceptions.contains(id)) {
+                inserts.add(new NotificationRead(state.userId, id));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (newMark != state.mark) {
+                markRepository.save(new NotificationReadMark(state.userId, newMark));
+                readRepository.deleteUpTo(state.userId, newMark);
+            }
+            readRepository.saveAll(inserts);
+        });
+
+        state.mark = newMark;
+        state.exceptions = new TreeSet<>(exceptions);
+        state.recount();
+    }
+
+    private static Collection<Notification.TargetRole> rolesSeeing(Notification.TargetRole target) {
+        if (target == Notification.TargetRole.ALL) {
+            return EnumSet.of(Notification.TargetRole.ALL, Notification.TargetRole.STUDENT,
+                    Notification.TargetRole.FACULTY, Notification.TargetRole.ADMIN);
+        }
+        return target == null ? List.of() : List.of(target);
+    }
+
+    private static boolean sees(Notification.TargetRole userRole, Notification.TargetRole target) {
+        return target == userRole || target == Notification.TargetRole.ALL;
+    }
+
+    private static final class UserState {
+        final Long userId;
+        final Notification.TargetRole role;
+        volatile SortedIds shared;
+        SortedIds personal;
+        long mark;
+        TreeSet<Long> exceptions;
+        int unread;
+
+        UserState(Long userId, Notification.TargetRole role, SortedIds shared, SortedIds personal, long mark,
+                  TreeSet<Long> exceptions) {
+            this.userId = userId;
+            this.role = role;
+            this.shared = shared;
+            this.personal = personal;
+            this.mark = mark;
+            this.exceptions = exceptions;
+            recount();
+        }
+
+        boolean visible(long id) {
+            return shared.contains(id) || personal.contains(id);
+        }
+
+        long nextVisibleAbove(long id) {
+            return Math.min(shared.nextAbove(id), personal.nextAbove(id));
+        }
+
+        long maxVisible() {
+            return Math.max(shared.max(), personal.max());
+        }
+
+        void recount() {
+            int readAbove = 0;
+            for (Long id : exceptions) {
+                if (visible(id)) {
+                    readAbove++;
+                }
+            }
+            unread = shared.countAbove(mark) + personal.countAbove(mark) - readAbove;
+        }
+    }
+
+    /** Immutable ascending id array; updates return a copy. */
+    static final class SortedIds {
+        private static final SortedIds EMPTY = new SortedIds(new long[0]);
+        private final long[] ids;
+
+        private SortedIds(long[] ids) {
+            this.ids = ids;
+        }
+
+        static SortedIds of(List<Long> ascending) {
+            long[] ids = new long[ascending.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = ascending.get(i);
+            }
+            return ids.length == 0 ? EMPTY : new SortedIds(ids);
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, id) >= 0;
+        }
+
+        int countAbove(long id) {
+            return ids.length - upperBound(id);
+        }
+
+        long nextAbove(long id) {
+            int i = upperBound(id);
+            return i < ids.length ? ids[i] : Long.MAX_VALUE;
+        }
+
+        long max() {
+            return ids.length > 0 ? ids[ids.length - 1] : 0L;
+        }
+
+        SortedIds with(long id) {
+            int i = Arrays.binarySearch(ids, id);
+            if (i >= 0) {
+                return this;
+            }
+            int at = -i - 1;
+            long[] copy = new long[ids.length + 1];
+            System.arraycopy(ids, 0, copy, 0, at);
+            copy[at] = id;
+            System.arraycopy(ids, at, copy, at + 1, ids.length - at);
+            return new SortedIds(copy);
+        }
+
+        SortedIds without(long id) {
+            int i = Arrays.binarySearch(ids, id);
+            if (i < 0) {
+                return this;
+            }
+            long[] copy = new long[ids.length - 1];
+            System.arraycopy(ids, 0, copy, 0, i);
+            System.arraycopy(ids, i + 1, copy, i, ids.length - i - 1);
+            return new SortedIds(copy);
+        }
+
+        private int upperBound(long id) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ids[mid] <= id) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
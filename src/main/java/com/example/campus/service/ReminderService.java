@@ -0,0 +1,371 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Assignment;
+import com.example.campus.entity.Fee;
+import com.example.campus.entity.Notification;
+import com.example.campus.entity.ReminderLog;
+import com.example.campus.entity.Subject;
+import com.example.campus.repository.AssignmentRepository;
+import com.example.campus.repository.AssignmentSubmissionRepository;
+import com.example.campus.repository.FeeRepository;
+import com.example.campus.repository.SubjectRepository;
+import com.example.campus.user.Role;
+import com.example.campus.user.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Sends "due soon" notifications ahead of assignment and fee due dates.
+ *
+ * Upcoming deadlines sit in an in-memory {@link TimerWheel}, one timer per
+ * deadline and offset, loaded at startup and kept current from the places
+ * that create and delete assignments and fees; the tables are never polled.
+ * Fees are grouped by due date, so a fee schedule billing a whole department
+ * adds one deadline, not one per student. Every reminder sent is recorded in
+ * reminder_log before the notifications go out: a restart reschedules what
+ * is still ahead, catches up on the most recent reminder it missed while down,
+ * and skips anything already on record.
+ */
+@Service
+public class ReminderService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderService.class);
+
+    private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("d MMM yyyy, HH:mm");
+
+    private static final String LOG_SQL = "INSERT INTO reminder_log (kind, source_id, offset_minutes, due_date, fired_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    // Fee rows were picked as not yet logged; one logged meanwhile is left as it is, any other error still fails
+    private static final String LOG_FEES_SQL = LOG_SQL + " ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String UNLOG_SQL = "DELETE FROM reminder_log WHERE kind = ? AND source_id = ? AND offset_minutes = ? AND due_date = ?";
+
+    // PENDING fees at a due date that have not had this reminder yet: [id, student_id]
+    private static final String FEES_TO_REMIND_SQL = "SELECT f.id, f.student_id FROM fees f " +
+            "WHERE f.status = 'PENDING' AND f.due_date = ? AND NOT EXISTS (SELECT 1 FROM reminder_log r " +
+            "WHERE r.kind = 'FEE' AND r.source_id = f.id AND r.offset_minutes = ? AND r.due_date = f.due_date)";
+
+    private record Reminder(ReminderLog.Kind kind, Long assignmentId, LocalDateTime dueDate, Duration offset) {
+        String deadline() {
+            return kind == ReminderLog.Kind.ASSIGNMENT ? "A:" + assignmentId : "F:" + dueDate;
+        }
+    }
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private AssignmentSubmissionRepository submissionRepository;
+
+    @Autowired
+    private FeeRepository feeRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // How long before a due date each reminder goes out
+    @Value("${campus.reminders.offsets:7d,1d,2h}")
+    private List<Duration> offsets;
+
+    @Value("${campus.reminders.batch-size:500}")
+    private int batchSize;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TimerWheel<Reminder> wheel;
+    private final Map<String, List<TimerWheel.Timer<Reminder>>> timersByDeadline = new HashMap<>();
+
+    public ReminderService(PlatformTransactionManager transactionManager,
+                           @Value("${campus.reminders.tick:1m}") Duration tick) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wheel = new TimerWheel<>(tick.toMillis(), System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadUpcoming() {
+        LocalDateTime now = LocalDateTime.now();
+        int deadlines = 0;
+        for (Assignment assignment : assignmentRepository.findByDueDateAfter(now)) {
+            schedule(new Reminder(ReminderLog.Kind.ASSIGNMENT, assignment.getId(), assignment.getDueDate(), null), true);
+            deadlines++;
+        }
+        for (LocalDateTime dueDate : feeRepository.findUpcomingDueDates(Fee.PaymentStatus.PENDING, now)) {
+            schedule(new Reminder(ReminderLog.Kind.FEE, null, dueDate, null), true);
+            deadlines++;
+        }
+        log.info("Reminders: {} upcoming deadlines, {} timers", deadlines, pendingTimers());
+    }
+
+    /** Schedules or reschedules an assignment's reminders; call after it is created or its due date changes. */
+    public void onAssignmentSaved(Assignment assignment) {
+        synchronized (wheel) {
+            onAssignmentDeleted(assignment.getId());
+            if (assignment.getDueDate() != null) {
+                schedule(new Reminder(ReminderLog.Kind.ASSIGNMENT, assignment.getId(), assignment.getDueDate(), null), false);
+            }
+        }
+    }
+
+    public void onAssignmentDeleted(Long assignmentId) {
+        synchronized (wheel) {
+            List<TimerWheel.Timer<Reminder>> timers = timersByDeadline.remove("A:" + assignmentId);
+            if (timers != null) {
+                timers.forEach(wheel::cancel);
+            }
+        }
+    }
+
+    /** Call after fees due at {@code dueDate} are created. Fees paid before a reminder fires are left out of it. */
+    public void onFeesCreated(LocalDateTime dueDate) {
+        if (dueDate == null) {
+            return;
+        }
+        Reminder deadline = new Reminder(ReminderLog.Kind.FEE, null, dueDate, null);
+        synchronized (wheel) {
+            if (!timersByDeadline.containsKey(deadline.deadline())) {
+                schedule(deadline, false);
+            }
+        }
+    }
+
+    public int pendingTimers() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${campus.reminders.poll-interval:15s}")
+    public void fireDue() {
+        List<Reminder> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+            for (Reminder reminder : due) {
+                List<TimerWheel.Timer<Reminder>> timers = timersByDeadline.get(reminder.deadline());
+                if (timers != null) {
+                    timers.removeIf(timer -> !timer.isPending());
+                    if (timers.isEmpty()) {
+                        timersByDeadline.remove(reminder.deadline());
+                    }
+                }
+            }
+        }
+        for (Reminder reminder : due) {
+            try {
+                if (reminder.kind() == ReminderLog.Kind.ASSIGNMENT) {
+                    remindAssignment(reminder);
+                } else {
+                    remindFees(reminder);
+                }
+            } catch (Exception e) {
+                log.error("Reminder {} failed", reminder, e);
+            }
+        }
+    }
+
+    /**
+     * One timer per offset still ahead. With {@code catchUp}, the nearest offset
+     * that has already passed fires straight away as well; the log keeps it from
+     * repeating one that went out before a restart.
+     */
+    private void schedule(Reminder deadline, boolean catchUp) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!deadline.dueDate().isAfter(now)) {
+            return;
+        }
+        List<Reminder> reminders = new ArrayList<>();
+        Duration missed = null;
+        for (Duration offset : offsets) {
+            LocalDateTime fireAt = deadline.dueDate().minus(offset);
+            if (fireAt.isAfter(now)) {
+                reminders.add(new Reminder(deadline.kind(), deadline.assignmentId(), deadline.dueDate(), offset));
+            } else if (missed == null || offset.compareTo(missed) < 0) {
+                missed = offset;
+            }
+        }
+        if (catchUp && missed != null) {
+            reminders.add(new Reminder(deadline.kind(), deadline.assignmentId(), deadline.dueDate(), missed));
+        }
+
+        synchronized (wheel) {
+            List<TimerWheel.Timer<Reminder>> timers = timersByDeadline.computeIfAbsent(deadline.deadline(), k -> new ArrayList<>());
+            for (Reminder reminder : reminders) {
+                timers.add(wheel.schedule(epochMillis(reminder.dueDate().minus(reminder.offset())), reminder));
+            }
+            if (timers.isEmpty()) {
+                timersByDeadline.remove(deadline.deadline());
+            }
+        }
+    }
+
+    private void remindAssignment(Reminder reminder) {
+        Assignment assignment = assignmentRepository.findById(reminder.assignmentId()).orElse(null);
+        if (assignment == null || !reminder.dueDate().equals(assignment.getDueDate())) {
+            return; // deleted, or moved and rescheduled under its new due date
+        }
+        List<Long> recipients = assignmentRecipients(assignment);
+        if (recipients == null) {
+            log.warn("Skipping reminder for assignment {} due {}: subject '{}' is not on record, so there is no class list",
+                    assignment.getId(), reminder.dueDate(), assignment.getSubject());
+            return;
+        }
+        Timestamp dueDate = Timestamp.valueOf(reminder.dueDate());
+        try {
+            // A plain INSERT: the driver reports found rather than changed rows, so an upsert's count cannot tell
+            jdbcTemplate.update(LOG_SQL, ReminderLog.Kind.ASSIGNMENT.name(), assignment.getId(),
+                    reminder.offset().toMinutes(), dueDate, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            return; // already sent before a restart
+        }
+
+        String title = "Assignment due " + describe(Duration.between(LocalDateTime.now(), reminder.dueDate()));
+        String message = "\"" + assignment.getTitle() + "\" (" + assignment.getSubject() + ") is due on "
+                + reminder.dueDate().format(DUE_FORMAT) + ". Submit it before the deadline if you have not yet.";
+        try {
+            List<Notification> batch = new ArrayList<>(batchSize);
+            for (Long studentId : recipients) {
+                batch.add(notification(title, message, studentId));
+                if (batch.size() == batchSize) {
+                    notificationService.createAll(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                notificationService.createAll(batch);
+            }
+        } catch (RuntimeException e) {
+            // Release the claim so the reminder goes out after the next restart instead of being lost
+            jdbcTemplate.update(UNLOG_SQL, ReminderLog.Kind.ASSIGNMENT.name(), assignment.getId(),
+                    reminder.offset().toMinutes(), dueDate);
+            throw e;
+        }
+    }
+
+    /** Students of the assignment's subject who have not submitted, or null if the subject is unknown. */
+    private List<Long> assignmentRecipients(Assignment assignment) {
+        List<Subject> subjects = subjectRepository.findBySubjectNameOrSubjectCode(assignment.getSubject(), assignment.getSubject());
+        if (subjects.isEmpty()) {
+            return null;
+        }
+        Set<Long> submitted = new HashSet<>(submissionRepository.findStudentIdsByAssignmentId(assignment.getId()));
+        Set<Long> recipients = new LinkedHashSet<>();
+        Set<List<String>> classes = new HashSet<>();
+        for (Subject subject : subjects) {
+            if (!classes.add(Arrays.asList(subject.getDepartment(), subject.getSemester()))) {
+                continue;
+            }
+            Long afterId = 0L;
+            while (true) {
+                List<Long> ids = userRepository.findIdsByProfileAfter(Role.STUDENT, subject.getDepartment(),
+                        subject.getSemester(), afterId, PageRequest.of(0, batchSize));
+                for (Long id : ids) {
+                    if (!submitted.contains(id)) {
+                        recipients.add(id);
+                    }
+                }
+                if (ids.size() < batchSize) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+        }
+        return new ArrayList<>(recipients);
+    }
+
+    private void remindFees(Reminder reminder) {
+        Timestamp dueDate = Timestamp.valueOf(reminder.dueDate());
+        long offsetMinutes = reminder.offset().toMinutes();
+        List<Object[]> fees = jdbcTemplate.query(FEES_TO_REMIND_SQL,
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getLong(2)}, dueDate, offsetMinutes);
+        if (fees.isEmpty()) {
+            return;
+        }
+
+        Timestamp firedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> logRows = new ArrayList<>(fees.size());
+        Map<Long, Integer> feesByStudent = new LinkedHashMap<>();
+        for (Object[] fee : fees) {
+            logRows.add(new Object[]{ReminderLog.Kind.FEE.name(), fee[0], offsetMinutes, dueDate, firedAt});
+            feesByStudent.merge((Long) fee[1], 1, Integer::sum);
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(LOG_FEES_SQL, logRows));
+
+        String title = "Fee due " + describe(Duration.between(LocalDateTime.now(), reminder.dueDate()));
+        try {
+            List<Notification> batch = new ArrayList<>(batchSize);
+            for (Map.Entry<Long, Integer> entry : feesByStudent.entrySet()) {
+                int count = entry.getValue();
+                batch.add(notification(title, (count == 1 ? "You have a fee" : "You have " + count + " fees")
+                        + " due on " + reminder.dueDate().format(DUE_FORMAT) + ". Please pay before the due date to avoid it becoming overdue.",
+                        entry.getKey()));
+                if (batch.size() == batchSize) {
+                    notificationService.createAll(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                notificationService.createAll(batch);
+            }
+        } catch (RuntimeException e) {
+            // Students already notified may get this reminder twice after a restart; better than nobody getting it
+            List<Object[]> keys = new ArrayList<>(fees.size());
+            for (Object[] fee : fees) {
+                keys.add(new Object[]{ReminderLog.Kind.FEE.name(), fee[0], offsetMinutes, dueDate});
+            }
+            jdbcTemplate.batchUpdate(UNLOG_SQL, keys);
+            throw e;
+        }
+    }
+
+    private static Notification notification(String title, String message, Long studentId) {
+        Notification notification = new Notification();
+        notification.setTitle(title);
+        notification.setMessage(message);
+        notification.setCreatedBy("system");
+        notification.setTargetRole(Notification.TargetRole.STUDENT);
+        notification.setTargetUserId(studentId);
+        return notification;
+    }
+
+    static String describe(Duration remaining) {
+        long minutes = Math.max(remaining.toMinutes(), 0);
+        if (minutes >= 23 * 60) {
+            long days = Math.max((minutes + 12 * 60) / (24 * 60), 1);
+            return days == 1 ? "in 1 day" : "in " + days + " days";
+        }
+        if (minutes >= 90) {
+            return "in " + (minutes + 30) / 60 + " hours";
+        }
+        return minutes > 1 ? "in " + minutes + " minutes" : "now";
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.DailyRollup;
+import com.example.campus.entity.EtlWatermark;
+import com.example.campus.entity.RollupDirtyDay;
+import com.example.campus.entity.Subject;
+import com.example.campus.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Incremental ETL that keeps {@link DailyRollup} buckets in step with the raw
+ * attendance, marks, fees, feedback and submission tables.
+ *
+ * Each source is read in (updated_at, id) order starting from its stored
+ * watermark. Every day touched by a changed row is recomputed from scratch
+ * with one GROUP BY over that day and swapped in, so re-running a range is
+ * harmless. The watermark only moves forward in the same transaction that
+ * rewrites the affected days; a run killed halfway resumes from the last
+ * checkpoint.
+ *
+ * A deleted row, or one edited onto another day, leaves nothing behind to
+ * read from the day it came from. The paths that do that (feedback archival,
+ * resubmissions, assignment deletion) record the day through
+ * {@link #markDirty}, and after the watermark pass every run rebuilds the
+ * recorded days and clears them. Submissions written before updated_at
+ * existed are stamped with the current time so the next run picks them up.
+ */
+@Service
+public class RollupEtlService {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupEtlService.class);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String NO_DEPARTMENT = "UNASSIGNED";
+    private static final String ALL = "ALL";
+
+    private static final String BACKFILL_SUBMISSIONS_SQL =
+            "UPDATE assignment_submissions SET updated_at = ? WHERE updated_at IS NULL LIMIT ?";
+
+    // Marking a day that is already marked bumps its generation, so a rebuild in progress does not clear it
+    private static final String MARK_DIRTY_SQL = "INSERT INTO rollup_dirty_days (source, rollup_day, generation) " +
+            "VALUES (?, ?, 0) ON DUPLICATE KEY UPDATE generation = generation + 1";
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private MarkRepository markRepository;
+
+    @Autowired
+    private FeeRepository feeRepository;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private AssignmentSubmissionRepository submissionRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private DailyRollupRepository dailyRollupRepository;
+
+    @Autowired
+    private EtlWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private RollupDirtyDayRepository dirtyDayRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${campus.rollup.chunk-size:1000}")
+    private int chunkSize;
+
+    // Days rewritten per checkpoint
+    @Value("${campus.rollup.days-per-checkpoint:31}")
+    private int daysPerCheckpoint;
+
+    // Rows younger than this are left for the next run so late commits are not skipped
+    @Value("${campus.rollup.settle-time:2m}")
+    private Duration settleTime;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock running = new ReentrantLock();
+
+    public RollupEtlService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${campus.rollup.cron:0 */15 * * * *}")
+    public void scheduledRun() {
+        try {
+            runAll();
+        } catch (Exception e) {
+            log.error("Rollup ETL run failed", e);
+        }
+    }
+
+    /**
+     * Brings every rollup source up to date. Returns the number of changed rows
+     * read and days rebuilt per source; an empty map means another run was
+     * already in progress.
+     */
+    public Map<String, Object> runAll() {
+        if (!running.tryLock()) {
+            return Map.of();
+        }
+        try {
+            Map<String, String> departments = departmentsBySubject();
+            LocalDateTime now = LocalDateTime.now();
+            backfillSubmissions(now);
+            LocalDateTime upTo = now.minus(settleTime);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            for (DailyRollup.Source source : DailyRollup.Source.values()) {
+                report.put(source.name(), runSource(source, departments, upTo));
+            }
+            return report;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    /**
+     * Records days whose buckets still count rows that were deleted or moved
+     * away; the next run rebuilds them. Joins the caller's transaction if
+     * there is one.
+     */
+    public void markDirty(DailyRollup.Source source, Collection<LocalDate> days) {
+        List<Object[]> rows = new ArrayList<>(days.size());
+        for (LocalDate day : new TreeSet<>(days)) {
+            rows.add(new Object[]{source.name(), Date.valueOf(day)});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_DIRTY_SQL, rows);
+        }
+    }
+
+    private Map<String, Object> runSource(DailyRollup.Source source, Map<String, String> departments, LocalDateTime upTo) {
+        EtlWatermark watermark = watermarkRepository.findById(source)
+                .orElseGet(() -> new EtlWatermark(source, EPOCH, 0L));
+
+        long rowsRead = 0;
+        int daysRebuilt = 0;
+        Set<LocalDate> pendingDays = new TreeSet<>();
+        boolean dirty = false;
+
+        while (true) {
+            List<Object[]> changed = findChanged(source, watermark.getLastChangedAt(), watermark.getLastId(), upTo);
+            for (Object[] row : changed) {
+                LocalDate day = toDay(row[2]);
+                if (day != null) {
+                    pendingDays.add(day);
+                }
+            }
+            if (!changed.isEmpty()) {
+                Object[] last = changed.get(changed.size() - 1);
+                watermark.setLastId(((Number) last[0]).longValue());
+                watermark.setLastChangedAt((LocalDateTime) last[1]);
+                rowsRead += changed.size();
+                dirty = true;
+            }
+
+            boolean finished = changed.size() < chunkSize;
+            if (dirty && (finished || pendingDays.size() >= daysPerCheckpoint)) {
+                daysRebuilt += checkpoint(source, pendingDays, watermark, departments);
+                pendingDays.clear();
+                dirty = false;
+            }
+            if (finished) {
+                break;
+            }
+        }
+
+        List<RollupDirtyDay> dirtyDays = dirtyDayRepository.findBySourceOrderByDay(source);
+        for (int from = 0; from < dirtyDays.size(); from += daysPerCheckpoint) {
+            List<RollupDirtyDay> marks = dirtyDays.subList(from, Math.min(from + daysPerCheckpoint, dirtyDays.size()));
+            Set<LocalDate> days = new TreeSet<>();
+            for (RollupDirtyDay mark : marks) {
+                days.add(mark.getDay());
+            }
+            daysRebuilt += checkpoint(source, days, watermark, departments, marks);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rowsRead", rowsRead);
+        result.put("daysRebuilt", daysRebuilt);
+        result.put("staleDaysRebuilt", dirtyDays.size());
+        result.put("watermark", watermark.getLastChangedAt());
+        return result;
+    }
+
+    private int checkpoint(DailyRollup.Source source, Set<LocalDate> days, EtlWatermark watermark,
+                           Map<String, String> departments) {
+        return checkpoint(source, days, watermark, departments, List.of());
+    }
+
+    private int checkpoint(DailyRollup.Source source, Set<LocalDate> days, EtlWatermark watermark,
+                           Map<String, String> departments, List<RollupDirtyDay> cleared) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (LocalDate day : days) {
+                dailyRollupRepository.deleteBySourceAndDay(source, day);
+                dailyRollupRepository.saveAll(aggregate(source, day, departments));
+            }
+            for (RollupDirtyDay mark : cleared) {
+                dirtyDayRepository.deleteIfUnchanged(mark.getId(), mark.getGeneration());
+            }
+            // Trend ETags and caches key on this, so it moves even when the resume position does not
+            watermark.setRollupVersion(watermark.getRollupVersion() == null ? 1L : watermark.getRollupVersion() + 1);
+            watermarkRepository.save(watermark);
+        });
+        return days.size();
+    }
+
+    private List<Object[]> findChanged(DailyRollup.Source source, LocalDateTime since, Long lastId, LocalDateTime upTo) {
+        PageRequest page = PageRequest.of(0, chunkSize);
+        return switch (source) {
+            case ATTENDANCE -> attendanceRepository.findChangedSince(since, lastId, upTo, page);
+            case MARK -> markRepository.findChangedSince(since, lastId, upTo, page);
+            case FEE -> feeRepository.findChangedSince(since, lastId, upTo, page);
+            case FEEDBACK -> feedbackRepository.findChangedSince(since, lastId, upTo, page);
+            case SUBMISSION -> submissionRepository.findChangedSince(since, lastId, upTo, page);
+        };
+    }
+
+    private void backfillSubmissions(LocalDateTime now) {
+        int updated;
+        do {
+            updated = jdbcTemplate.update(BACKFILL_SUBMISSIONS_SQL, Timestamp.valueOf(now), chunkSize);
+        } while (updated == chunkSize);
+    }
+
+    private List<DailyRollup> aggregate(DailyRollup.Source source, LocalDate day, Map<String, String> departments) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        List<DailyRollup> buckets = new ArrayList<>();
+
+        switch (source) {
+            case ATTENDANCE -> {
+                for (Object[] row : attendanceRepository.aggregateDay(day)) {
+                    String subject = label(row[0]);
+                    buckets.add(new DailyRollup(source, day, departmentOf(subject, departments), subject,
+                            label(row[1]), count(row[2]), 0.0, 0.0));
+                }
+            }
+            case MARK -> {
+                for (Object[] row : markRepository.aggregateCreatedBetween(from, to)) {
+                    String subject = label(row[0]);
+                    buckets.add(new DailyRollup(source, day, departmentOf(subject, departments), subject,
+                            label(row[1]), count(row[2]), sum(row[3]), sum(row[4])));
+                }
+            }
+            case FEE -> {
+                for (Object[] row : feeRepository.aggregateCreatedBetween(from, to)) {
+                    buckets.add(new DailyRollup(source, day, ALL, label(row[0]),
+                            label(row[1]), count(row[2]), sum(row[3]), 0.0));
+                }
+            }
+            case FEEDBACK -> {
+                for (Object[] row : feedbackRepository.aggregateCreatedBetween(from, to)) {
+                    buckets.add(new DailyRollup(source, day, ALL, label(row[0]),
+                            label(row[1]), count(row[2]), 0.0, 0.0));
+                }
+            }
+            case SUBMISSION -> {
+                for (Object[] row : submissionRepository.aggregateSubmittedBetween(from, to)) {
+                    String subject = label(row[0]);
+                    buckets.add(new DailyRollup(source, day, departmentOf(subject, departments), subject,
+                            label(row[1]), count(row[2]), sum(row[3]), sum(row[4])));
+                }
+            }
+        }
+        return buckets;
+    }
+
+    // Subjects are referenced by code or by name in the raw tables
+    private Map<String, String> departmentsBySubject() {
+        Map<String, String> departments = new HashMap<>();
+        for (Subject subject : subjectRepository.findAll()) {
+            if (subject.getDepartment() == null) {
+                continue;
+            }
+            if (subject.getSubjectCode() != null) {
+                departments.put(subject.getSubjectCode().toLowerCase(Locale.ROOT), subject.getDepartment());
+            }
+            if (subject.getSubjectName() != null) {
+                departments.put(subject.getSubjectName().toLowerCase(Locale.ROOT), subject.getDepartment());
+            }
+        }
+        return departments;
+    }
+
+    private static String departmentOf(String subject, Map<String, String> departments) {
+        return departments.getOrDefault(subject.toLowerCase(Locale.ROOT), NO_DEPARTMENT);
+    }
+
+    private static LocalDate toDay(Object value) {
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        return null;
+    }
+
+    private static String label(Object value) {
+        return value == null ? "UNKNOWN" : value.toString();
+    }
+
+    private static long count(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private static double sum(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.doubleValue();
+        }
+        return value == null ? 0.0 : ((Number) value).doubleValue();
+    }
+}
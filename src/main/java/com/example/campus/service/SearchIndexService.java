@@ -0,0 +1,315 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Assignment;
+import com.example.campus.entity.Feedback;
+import com.example.campus.entity.Notification;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lucene index over notification, feedback and assignment text for admin search.
+ *
+ * Writes go straight into the {@link IndexWriter} buffer and become searchable
+ * on the next refresh (every second); commits to disk happen on a slower
+ * timer and on shutdown. A rebuild re-adds every row from the hot and archive
+ * tables in keyset order, stamping each document with the time it was
+ * indexed, and finally drops whatever was indexed before the rebuild started,
+ * so searches keep working against the old documents throughout.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+    public enum Type { NOTIFICATION, FEEDBACK, ASSIGNMENT }
+
+    public record Hit(String type, Long id, String title, String preview, boolean archived,
+                      LocalDateTime createdAt, float score) {}
+
+    public record Results(long total, boolean totalExact, int page, int size, List<Hit> hits) {}
+
+    private static final int PREVIEW_LENGTH = 200;
+    // Deepest result reachable by paging; past this the query should be refined
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    private static final String F_UID = "uid";
+    private static final String F_TYPE = "type";
+    private static final String F_ID = "id";
+    private static final String F_TITLE = "title";
+    private static final String F_BODY = "body";
+    private static final String F_PREVIEW = "preview";
+    private static final String F_ARCHIVED = "archived";
+    private static final String F_CREATED_AT = "createdAt";
+    private static final String F_INDEXED_AT = "indexedAt";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${campus.search.index-dir:${campus.data-dir:${user.home}/campus-data}/search-index}")
+    private Path indexDir;
+
+    @Value("${campus.search.rebuild-batch-size:2000}")
+    private int rebuildBatchSize;
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "search-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile Map<String, Object> lastRebuild = Map.of();
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(indexDir);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        config.setRAMBufferSizeMB(64);
+        writer = new IndexWriter(FSDirectory.open(indexDir), config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        rebuildExecutor.shutdownNow();
+        searcherManager.close();
+        writer.close(); // commits
+    }
+
+    /** Builds the index on first start, when the index directory is empty. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${campus.search.refresh-interval:1s}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Search index refresh failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${campus.search.commit-interval:30s}")
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.warn("Search index commit failed", e);
+        }
+    }
+
+    // --- single-document updates, called after the row is saved ---
+
+    public void index(Notification n) {
+        put(Type.NOTIFICATION, n.getId(), n.getTitle(), n.getMessage(), false, n.getCreatedAt());
+    }
+
+    public void index(Feedback f) {
+        put(Type.FEEDBACK, f.getId(), f.getTitle(), feedbackBody(f.getMessage(), f.getAdminResponse()), false, f.getCreatedAt());
+    }
+
+    public void index(Assignment a) {
+        put(Type.ASSIGNMENT, a.getId(), a.getTitle(), a.getDescription(), false, a.getCreatedAt());
+    }
+
+    /** Re-flags a row the archival job has moved to its archive table. */
+    public void indexArchived(Type type, Long id, String title, String body, LocalDateTime createdAt) {
+        put(type, id, title, body, true, createdAt);
+    }
+
+    public void remove(Type type, Long id) {
+        try {
+            writer.deleteDocuments(new Term(F_UID, uid(type, id)));
+        } catch (IOException e) {
+            log.warn("Could not remove {} {} from the search index", type, id, e);
+        }
+    }
+
+    // --- search ---
+
+    public Results search(String q, Type type, int page, int size) throws IOException {
+        Map<String, Float> weights = Map.of(F_TITLE, 2.0f, F_BODY, 1.0f);
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, weights);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query text = parser.parse(q);
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(text, BooleanClause.Occur.MUST);
+        if (type != null) {
+            query.add(new TermQuery(new Term(F_TYPE, type.name())), BooleanClause.Occur.FILTER);
+        }
+
+        int window = Math.min((page + 1) * size, MAX_RESULT_WINDOW);
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(query.build(), window);
+            List<Hit> hits = new ArrayList<>(size);
+            StoredFields stored = searcher.storedFields();
+            for (int i = page * size; i < top.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = top.scoreDocs[i];
+                Document doc = stored.document(scoreDoc.doc);
+                Long createdAt = doc.getField(F_CREATED_AT) != null ? doc.getField(F_CREATED_AT).numericValue().longValue() : null;
+                hits.add(new Hit(doc.get(F_TYPE), Long.valueOf(doc.get(F_ID)), doc.get(F_TITLE), doc.get(F_PREVIEW),
+                        "true".equals(doc.get(F_ARCHIVED)),
+                        createdAt != null ? LocalDateTime.ofEpochSecond(createdAt, 0, ZoneOffset.UTC) : null,
+                        scoreDoc.score));
+            }
+            return new Results(top.totalHits.value, top.totalHits.relation == TotalHits.Relation.EQUAL_TO,
+                    page, size, hits);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    // --- bulk rebuild ---
+
+    /** Starts a rebuild in the background; returns false if one is already running. */
+    public boolean rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                lastRebuild = doRebuild();
+                log.info("Search index rebuilt: {}", lastRebuild);
+            } catch (Exception e) {
+                log.error("Search index rebuild failed", e);
+                lastRebuild = Map.of("error", String.valueOf(e.getMessage()));
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("documents", writer.getDocStats().numDocs);
+        status.put("rebuilding", rebuilding.get());
+        status.put("lastRebuild", lastRebuild);
+        return status;
+    }
+
+    private Map<String, Object> doRebuild() throws IOException {
+        long started = System.currentTimeMillis();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("notifications", reindex(Type.NOTIFICATION, "notifications", false,
+                "title, message AS body", started));
+        report.put("archivedNotifications", reindex(Type.NOTIFICATION, "notifications_archive", true,
+                "title, message AS body", started));
+        report.put("feedback", reindex(Type.FEEDBACK, "feedback", false,
+                "title, CONCAT_WS('\\n', message, admin_response) AS body", started));
+        report.put("archivedFeedback", reindex(Type.FEEDBACK, "feedback_archive", true,
+                "title, CONCAT_WS('\\n', message, admin_response) AS body", started));
+        report.put("assignments", reindex(Type.ASSIGNMENT, "assignments", false,
+                "title, description AS body", started));
+
+        // Anything not re-stamped by this pass belongs to a row that no longer exists
+        writer.deleteDocuments(LongPoint.newRangeQuery(F_INDEXED_AT, Long.MIN_VALUE, started - 1));
+        writer.commit();
+        searcherManager.maybeRefresh();
+
+        report.put("durationMillis", System.currentTimeMillis() - started);
+        return report;
+    }
+
+    private long reindex(Type type, String table, boolean archived, String columns, long started) throws IOException {
+        String sql = "SELECT id, " + columns + ", created_at FROM " + table + " WHERE id > ? ORDER BY id LIMIT ?";
+        long afterId = 0;
+        long count = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(sql, (rs, i) -> new Object[]{
+                    rs.getLong("id"), rs.getString("title"), rs.getString("body"), rs.getTimestamp("created_at")
+            }, afterId, rebuildBatchSize);
+            for (Object[] row : rows) {
+                Timestamp createdAt = (Timestamp) row[3];
+                writer.updateDocument(new Term(F_UID, uid(type, (Long) row[0])), document(type, (Long) row[0],
+                        (String) row[1], (String) row[2], archived,
+                        createdAt != null ? createdAt.toLocalDateTime() : null, System.currentTimeMillis()));
+            }
+            count += rows.size();
+            if (rows.size() < rebuildBatchSize) {
+                return count;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+
+    private void put(Type type, Long id, String title, String body, boolean archived, LocalDateTime createdAt) {
+        try {
+            writer.updateDocument(new Term(F_UID, uid(type, id)),
+                    document(type, id, title, body, archived, createdAt, System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.warn("Could not index {} {}", type, id, e);
+        }
+    }
+
+    private static Document document(Type type, Long id, String title, String body, boolean archived,
+                                     LocalDateTime createdAt, long indexedAt) {
+        Document doc = new Document();
+        doc.add(new StringField(F_UID, uid(type, id), Field.Store.NO));
+        doc.add(new StringField(F_TYPE, type.name(), Field.Store.YES));
+        doc.add(new StoredField(F_ID, String.valueOf(id)));
+        doc.add(new TextField(F_TITLE, title != null ? title : "", Field.Store.YES));
+        doc.add(new TextField(F_BODY, body != null ? body : "", Field.Store.NO));
+        if (body != null) {
+            doc.add(new StoredField(F_PREVIEW, body.length() > PREVIEW_LENGTH ? body.substring(0, PREVIEW_LENGTH) : body));
+        }
+        doc.add(new StoredField(F_ARCHIVED, String.valueOf(archived)));
+        if (createdAt != null) {
+            doc.add(new StoredField(F_CREATED_AT, createdAt.toEpochSecond(ZoneOffset.UTC)));
+        }
+        doc.add(new LongPoint(F_INDEXED_AT, indexedAt));
+        return doc;
+    }
+
+    private static String uid(Type type, Long id) {
+        return type.name() + ":" + id;
+    }
+
+    public static String feedbackBody(String first, String second) {
+        if (second == null || second.isEmpty()) {
+            return first;
+        }
+        return first == null ? second : first + "\n" + second;
+    }
+}
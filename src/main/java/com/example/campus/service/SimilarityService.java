@@ -0,0 +1,98 @@
+package com.example.campus.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Flags pairs of submissions to the same assignment whose texts are nearly
+ * identical.
+ *
+ * Every assignment gets its own {@link MinHashIndex}, built from
+ * assignment_submissions the first time faculty ask about it and kept up to
+ * date from the submit path afterwards, so finding suspicious pairs costs
+ * roughly one pass over the class instead of comparing every pair. Only the
+ * most recently used assignments stay in memory. Uploaded files are not
+ * looked at, only submission_text.
+ */
+@Service
+public class SimilarityService {
+
+    public record SimilarPair(Long submissionId, Long studentId, Long otherSubmissionId, Long otherStudentId,
+                              double similarity) {}
+
+    private static final class Entry {
+        final MinHashIndex index = new MinHashIndex();
+        final Map<Long, Long> studentBySubmission = new HashMap<>();
+        boolean loaded;
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Entry> entries;
+
+    public SimilarityService(@Value("${campus.similarity.max-assignments:50}") int maxAssignments) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxAssignments;
+            }
+        };
+    }
+
+    /** Pairs of submissions whose estimated Jaccard similarity is at least {@code threshold}, most similar first. */
+    public List<SimilarPair> similarPairs(Long assignmentId, double threshold) {
+        Entry entry = entry(assignmentId, true);
+        synchronized (entry) {
+            if (!entry.loaded) {
+                load(assignmentId, entry);
+            }
+            List<MinHashIndex.Pair> pairs = entry.index.pairs(threshold);
+            List<SimilarPair> result = new ArrayList<>(pairs.size());
+            for (MinHashIndex.Pair pair : pairs) {
+                result.add(new SimilarPair(pair.first(), entry.studentBySubmission.get(pair.first()),
+                        pair.second(), entry.studentBySubmission.get(pair.second()), pair.similarity()));
+            }
+            return result;
+        }
+    }
+
+    /** Called after a submission is written. Assignments nobody has asked about yet are skipped; they load later. */
+    public void onSubmitted(Long assignmentId, Long submissionId, Long studentId, String submissionText) {
+        Entry entry = entry(assignmentId, false);
+        if (entry == null) {
+            return;
+        }
+        // Waits for a load in progress, which may or may not have read this row; putting it again is harmless
+        synchronized (entry) {
+            entry.index.put(submissionId, submissionText);
+            entry.studentBySubmission.put(submissionId, studentId);
+        }
+    }
+
+    public void onAssignmentDeleted(Long assignmentId) {
+        synchronized (entries) {
+            entries.remove(assignmentId);
+        }
+    }
+
+    private Entry entry(Long assignmentId, boolean create) {
+        synchronized (entries) {
+            return create ? entries.computeIfAbsent(assignmentId, id -> new Entry()) : entries.get(assignmentId);
+        }
+    }
+
+    private void load(Long assignmentId, Entry entry) {
+        jdbcTemplate.query("SELECT id, student_id, submission_text FROM assignment_submissions WHERE assignment_id = ?",
+                rs -> {
+                    long id = rs.getLong(1);
+                    entry.index.put(id, rs.getString(3));
+                    entry.studentBySubmission.put(id, rs.getLong(2));
+                }, assignmentId);
+        entry.loaded = true;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Student;
+import com.example.campus.entity.Subject;
+import com.example.campus.repository.AssignmentRepository;
+import com.example.campus.repository.StudentRepository;
+import com.example.campus.repository.SubjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * The assignment list a student sees: assignments for the subjects of their
+ * department and semester that are still open or fell due in the last few
+ * days, soonest first, each with the student's own submission status.
+ *
+ * A page is one keyset range scan on (subject, due_date, id) with the
+ * student's submission LEFT JOINed in the same query. Cursors are
+ * "dueDate,id" of the last row returned. Students without a profile or
+ * whose department has no subjects on record see every subject.
+ */
+@Service
+public class StudentAssignmentService {
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public record AssignmentPage(List<Map<String, Object>> items, String nextCursor, String etag) {
+    }
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    // Assignments stay listed this long after their due date
+    @Value("${campus.assignments.recent-days:14}")
+    private int recentDays;
+
+    public AssignmentPage page(Long userId, String username, String after, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        LocalDateTime afterDue = START;
+        long afterId = 0L;
+        if (after != null && !after.isBlank()) {
+            int comma = after.lastIndexOf(',');
+            try {
+                afterDue = LocalDateTime.parse(after.substring(0, comma).trim());
+                afterId = Long.parseLong(after.substring(comma + 1).trim());
+            } catch (StringIndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor, expected <dueDate>,<id>");
+            }
+        }
+
+        LocalDateTime dueFrom = LocalDateTime.now().toLocalDate().minusDays(recentDays).atStartOfDay();
+        Set<String> subjects = enrolledSubjects(username);
+        // One extra row tells whether there is a next page
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<Object[]> rows = subjects.isEmpty()
+                ? assignmentRepository.findStudentPageAllSubjects(userId, dueFrom, afterDue, afterId, page)
+                : assignmentRepository.findStudentPage(userId, subjects, dueFrom, afterDue, afterId, page);
+
+        boolean more = rows.size() > size;
+        List<Object[]> pageRows = more ? rows.subList(0, size) : rows;
+        List<Map<String, Object>> items = new ArrayList<>(pageRows.size());
+        StringBuilder fingerprint = new StringBuilder();
+        for (Object[] row : pageRows) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", row[0]);
+            item.put("title", row[1]);
+            item.put("description", row[2]);
+            item.put("subject", row[3]);
+            item.put("maxMarks", row[4]);
+            item.put("dueDate", row[5] != null ? row[5].toString() : null);
+            item.put("createdBy", row[6]);
+            item.put("submissionId", row[7]);
+            item.put("submissionStatus", row[8] != null ? row[8].toString() : "NOT_SUBMITTED");
+            item.put("submittedAt", row[9] != null ? row[9].toString() : null);
+            item.put("marksObtained", row[10]);
+            items.add(item);
+            fingerprint.append(item.values()).append('\n');
+        }
+
+        String nextCursor = null;
+        if (more) {
+            Object[] last = pageRows.get(pageRows.size() - 1);
+            nextCursor = last[5] + "," + last[0];
+        }
+        fingerprint.append(nextCursor);
+        String etag = "\"" + DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        return new AssignmentPage(items, nextCursor, etag);
+    }
+
+    private Set<String> enrolledSubjects(String username) {
+        Student student = studentRepository.findByEmail(username).orElse(null);
+        if (student == null || student.getDepartment() == null) {
+            return Set.of();
+        }
+        List<Subject> subjects = student.getSemester() != null
+                ? subjectRepository.findByDepartmentAndSemester(student.getDepartment(), student.getSemester())
+                : List.of();
+        if (subjects.isEmpty()) {
+            subjects = subjectRepository.findByDepartment(student.getDepartment());
+        }
+        // Assignments name their subject either way
+        Set<String> names = new HashSet<>();
+        for (Subject subject : subjects) {
+            if (subject.getSubjectName() != null) {
+                names.add(subject.getSubjectName());
+            }
+            if (subject.getSubjectCode() != null) {
+                names.add(subject.getSubjectCode());
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Assignment;
+import com.example.campus.entity.AssignmentSubmission;
+import com.example.campus.entity.DailyRollup;
+import com.example.campus.repository.AssignmentRepository;
+import com.example.campus.repository.AssignmentSubmissionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Student submission write path.
+ *
+ * Each student writes their own assignment_submissions row, keyed by the
+ * (assignment_id, student_id) unique index, with a single INSERT ... ON
+ * DUPLICATE KEY UPDATE, so concurrent submissions to one assignment never
+ * touch a shared row. Resubmitting replaces the previous attempt until the
+ * submission has been graded; the status is LATE when submitted after the
+ * assignment's due date.
+ */
+@Service
+public class SubmissionService {
+
+    public enum Outcome { SUBMITTED, RESUBMITTED, ALREADY_GRADED, NOT_FOUND }
+
+    public record SubmitResult(Outcome outcome, AssignmentSubmission submission) {}
+
+    // Columns keep their old values once the row is GRADED; status is assigned last so the
+    // CASE expressions above it still see the stored status
+    private static final String UPSERT_SQL = "INSERT INTO assignment_submissions " +
+            "(assignment_id, student_id, submission_text, file_path, file_name, file_size, content_type, " +
+            "submitted_at, status, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "submission_text = CASE WHEN status = 'GRADED' THEN submission_text ELSE VALUES(submission_text) END, " +
+            "file_path = CASE WHEN status = 'GRADED' THEN file_path ELSE VALUES(file_path) END, " +
+            "file_name = CASE WHEN status = 'GRADED' THEN file_name ELSE VALUES(file_name) END, " +
+            "file_size = CASE WHEN status = 'GRADED' THEN file_size ELSE VALUES(file_size) END, " +
+            "content_type = CASE WHEN status = 'GRADED' THEN content_type ELSE VALUES(content_type) END, " +
+            "submitted_at = CASE WHEN status = 'GRADED' THEN submitted_at ELSE VALUES(submitted_at) END, " +
+            "updated_at = CASE WHEN status = 'GRADED' THEN updated_at ELSE VALUES(updated_at) END, " +
+            "status = CASE WHEN status = 'GRADED' THEN status ELSE VALUES(status) END";
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private AssignmentSubmissionRepository submissionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PendingReviewCounter pendingReviewCounter;
+
+    @Autowired
+    private SimilarityService similarityService;
+
+    @Autowired
+    private RollupEtlService rollupEtlService;
+
+    public SubmitResult submit(Long assignmentId, Long studentId, String submissionText, String fileUrl) {
+        return submit(assignmentId, studentId, submissionText, fileUrl, null, null, null);
+    }
+
+    /** Submission with a file already placed in the {@link FileStorageService}; filePath is its content address. */
+    public SubmitResult submit(Long assignmentId, Long studentId, String submissionText, String filePath,
+                               String fileName, Long fileSize, String contentType) {
+        Assignment assignment = assignmentRepository.findById(assignmentId).orElse(null);
+        if (assignment == null) {
+            return new SubmitResult(Outcome.NOT_FOUND, null);
+        }
+
+        AssignmentSubmission existing = submissionRepository.findByAssignmentIdAndStudentId(assignmentId, studentId);
+        if (existing != null && existing.getStatus() == AssignmentSubmission.SubmissionStatus.GRADED) {
+            return new SubmitResult(Outcome.ALREADY_GRADED, existing);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        AssignmentSubmission.SubmissionStatus status = assignment.getDueDate() != null && now.isAfter(assignment.getDueDate())
+                ? AssignmentSubmission.SubmissionStatus.LATE
+                : AssignmentSubmission.SubmissionStatus.SUBMITTED;
+        Timestamp at = Timestamp.valueOf(now);
+        // 1 when the row was inserted, 2 when an existing row was updated (MySQL ON DUPLICATE KEY semantics);
+        // a GRADED row left as it was also reports 1, but returns early below
+        int affected = jdbcTemplate.update(UPSERT_SQL, assignmentId, studentId, submissionText, filePath, fileName, fileSize,
+                contentType, at, status.name(), at);
+
+        AssignmentSubmission saved = submissionRepository.findByAssignmentIdAndStudentId(assignmentId, studentId);
+        if (saved.getStatus() == AssignmentSubmission.SubmissionStatus.GRADED) {
+            // Graded between our read and the upsert; the guarded update left it untouched
+            return new SubmitResult(Outcome.ALREADY_GRADED, saved);
+        }
+        if (affected == 1) {
+            // A new row joins the faculty's review queue; a resubmission was already in it
+            pendingReviewCounter.onSubmitted(assignment.getCreatedBy());
+        } else if (existing != null && existing.getSubmittedAt() != null
+                && !existing.getSubmittedAt().toLocalDate().equals(now.toLocalDate())) {
+            // The resubmission left the day of the previous attempt, which the rollups still count it on
+            rollupEtlService.markDirty(DailyRollup.Source.SUBMISSION, List.of(existing.getSubmittedAt().toLocalDate()));
+        }
+        similarityService.onSubmitted(assignmentId, saved.getId(), studentId, saved.getSubmissionText());
+        return new SubmitResult(existing == null ? Outcome.SUBMITTED : Outcome.RESUBMITTED, saved);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.campus.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots, each level's slot
+ * spanning one full turn of the level below, so with a one-minute tick it
+ * reaches about 31 years ahead.
+ *
+ * Scheduling and cancelling are O(1): a timer is linked into the slot of the
+ * coarsest level its distance needs and is moved down a level each time the
+ * wheel turns over that slot, at most three moves in its life. Advancing costs
+ * one slot visit per tick plus the timers that fire. Not thread-safe; callers
+ * synchronise.
+ */
+public class TimerWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    public static final class Timer<T> {
+        private final long tick;
+        private final T payload;
+        private Slot<T> slot;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(long tick, T payload) {
+            this.tick = tick;
+            this.payload = payload;
+        }
+
+        public T payload() { return payload; }
+        public boolean isPending() { return slot != null; }
+    }
+
+    private static final class Slot<T> {
+        private Timer<T> head;
+
+        void add(Timer<T> timer) {
+            timer.slot = this;
+            timer.prev = null;
+            timer.next = head;
+            if (head != null) {
+                head.prev = timer;
+            }
+            head = timer;
+        }
+
+        void remove(Timer<T> timer) {
+            if (timer.prev != null) {
+                timer.prev.next = timer.next;
+            } else {
+                head = timer.next;
+            }
+            if (timer.next != null) {
+                timer.next.prev = timer.prev;
+            }
+            timer.slot = null;
+            timer.prev = null;
+            timer.next = null;
+        }
+
+        Timer<T> detachAll() {
+            Timer<T> first = head;
+            head = null;
+            return first;
+        }
+    }
+
+    private final long tickMillis;
+    private final Slot<T>[][] levels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.levels = new Slot[LEVELS][SLOTS];
+        for (Slot<T>[] level : levels) {
+            for (int s = 0; s < SLOTS; s++) {
+                level[s] = new Slot<>();
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Schedules {@code payload} to fire at the first tick at or after {@code deadlineMillis}; past deadlines fire on the next tick. */
+    public Timer<T> schedule(long deadlineMillis, T payload) {
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        Timer<T> timer = new Timer<>(tick, payload);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /** Returns false if the timer already fired or was cancelled. */
+    public boolean cancel(Timer<T> timer) {
+        if (timer.slot == null) {
+            return false;
+        }
+        timer.slot.remove(timer);
+        size--;
+        return true;
+    }
+
+    /** Turns the wheel up to {@code nowMillis} and returns the payloads that fell due, in tick order. */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            currentTick++;
+            // Bring down the coarser slots that start at this tick, outermost first
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(levels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & MASK)]);
+                }
+            }
+            Slot<T> slot = levels[0][(int) (currentTick & MASK)];
+            for (Timer<T> timer = slot.detachAll(); timer != null; ) {
+                Timer<T> next = timer.next;
+                timer.slot = null;
+                timer.prev = null;
+                timer.next = null;
+                expired.add(timer.payload);
+                size--;
+                timer = next;
+            }
+        }
+        return expired;
+    }
+
+    private void cascade(Slot<T> slot) {
+        for (Timer<T> timer = slot.detachAll(); timer != null; ) {
+            Timer<T> next = timer.next;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.tick - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                levels[level][(int) ((timer.tick >>> (SLOT_BITS * level)) & MASK)].add(timer);
+                return;
+            }
+        }
+        // Beyond the wheel's reach: park it in the top-level slot that comes round last and re-place it from there
+        long parked = currentTick + (1L << (SLOT_BITS * LEVELS)) - 1;
+        levels[LEVELS - 1][(int) ((parked >>> (SLOT_BITS * (LEVELS - 1))) & MASK)].add(timer);
+    }
+}
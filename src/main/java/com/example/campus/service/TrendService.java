@@ -0,0 +1,134 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Attendance;
+import com.example.campus.entity.DailyRollup;
+import com.example.campus.entity.EtlWatermark;
+import com.example.campus.repository.DailyRollupRepository;
+import com.example.campus.repository.EtlWatermarkRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * Attendance and marks trends answered from the {@link DailyRollup} buckets, so
+ * the cost depends on the number of days asked for rather than on how much raw
+ * history has piled up.
+ */
+@Service
+public class TrendService {
+
+    public enum Bucket {
+        DAY, WEEK, MONTH
+    }
+
+    @Autowired
+    private DailyRollupRepository dailyRollupRepository;
+
+    @Autowired
+    private EtlWatermarkRepository watermarkRepository;
+
+    private final TtlCache<String, List<Map<String, Object>>> cache;
+
+    public TrendService(@Value("${campus.trends.cache-ttl:5m}") Duration ttl) {
+        this.cache = new TtlCache<>(ttl);
+    }
+
+    /**
+     * Version tag for a trend query. It changes whenever the rollup job rewrites
+     * the source, so it doubles as the HTTP ETag.
+     */
+    public String etag(DailyRollup.Source source, Bucket bucket, LocalDate from, LocalDate to,
+                       String subject, String department) {
+        String version = watermarkRepository.findById(source)
+                .map(EtlWatermark::getRollupVersion)
+                .map(Object::toString)
+                .orElse("none");
+        String key = String.join("|", source.name(), bucket.name(), from.toString(), to.toString(),
+                String.valueOf(subject), String.valueOf(department), version);
+        return "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public List<Map<String, Object>> attendance(Bucket bucket, LocalDate from, LocalDate to,
+                                                String subject, String department, String etag) {
+        return cache.get(etag, () -> {
+            Map<LocalDate, long[]> byBucket = new TreeMap<>();
+            for (DailyRollup r : dailyRollupRepository.findForTrend(DailyRollup.Source.ATTENDANCE, from, to, subject, department)) {
+                long[] counts = byBucket.computeIfAbsent(bucketStart(r.getDay(), bucket),
+                        d -> new long[Attendance.AttendanceStatus.values().length]);
+                Attendance.AttendanceStatus status = parseStatus(r.getDimension());
+                if (status != null) {
+                    counts[status.ordinal()] += r.getRowCount();
+                }
+            }
+
+            List<Map<String, Object>> series = new ArrayList<>();
+            byBucket.forEach((start, counts) -> {
+                long total = 0;
+                Map<String, Object> point = new LinkedHashMap<>();
+                point.put("bucketStart", start.toString());
+                for (Attendance.AttendanceStatus status : Attendance.AttendanceStatus.values()) {
+                    point.put(status.name().toLowerCase(Locale.ROOT), counts[status.ordinal()]);
+                    total += counts[status.ordinal()];
+                }
+                long present = counts[Attendance.AttendanceStatus.PRESENT.ordinal()];
+                point.put("total", total);
+                point.put("attendancePercentage", total > 0 ? round(present * 100.0 / total) : 0.0);
+                series.add(point);
+            });
+            return series;
+        });
+    }
+
+    public List<Map<String, Object>> marks(Bucket bucket, LocalDate from, LocalDate to,
+                                           String subject, String department, String etag) {
+        return cache.get(etag, () -> {
+            // [count, sum(marksObtained), sum(maxMarks)] per bucket
+            Map<LocalDate, double[]> byBucket = new TreeMap<>();
+            for (DailyRollup r : dailyRollupRepository.findForTrend(DailyRollup.Source.MARK, from, to, subject, department)) {
+                double[] totals = byBucket.computeIfAbsent(bucketStart(r.getDay(), bucket), d -> new double[3]);
+                totals[0] += r.getRowCount();
+                totals[1] += r.getValueSum();
+                totals[2] += r.getMaxSum();
+            }
+
+            List<Map<String, Object>> series = new ArrayList<>();
+            byBucket.forEach((start, totals) -> {
+                Map<String, Object> point = new LinkedHashMap<>();
+                point.put("bucketStart", start.toString());
+                point.put("marksEntered", (long) totals[0]);
+                point.put("averageMarks", totals[0] > 0 ? round(totals[1] / totals[0]) : 0.0);
+                point.put("averagePercentage", totals[2] > 0 ? round(totals[1] * 100.0 / totals[2]) : 0.0);
+                series.add(point);
+            });
+            return series;
+        });
+    }
+
+    private static LocalDate bucketStart(LocalDate day, Bucket bucket) {
+        return switch (bucket) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private static Attendance.AttendanceStatus parseStatus(String value) {
+        try {
+            return Attendance.AttendanceStatus.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.campus.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Small in-process cache with a fixed time-to-live per entry.
+ *
+ * Concurrent callers asking for the same key while it is being computed
+ * share one in-flight computation instead of each hitting the database.
+ * Failed computations are not cached. Expired entries are swept out
+ * periodically as new keys are loaded.
+ */
+public class TtlCache<K, V> {
+
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    public TtlCache(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        while (true) {
+            long now = System.nanoTime();
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !entry.isExpired(now)) {
+                return join(entry.value);
+            }
+
+            Entry<V> fresh = new Entry<>(new CompletableFuture<>(), now + ttlNanos);
+            boolean owner = entry == null
+                    ? entries.putIfAbsent(key, fresh) == null
+                    : entries.replace(key, entry, fresh);
+            if (!owner) {
+                continue; // someone else started a computation, go and wait on theirs
+            }
+
+            if ((loads.incrementAndGet() & 0xFF) == 0) {
+                removeExpired(now);
+            }
+            try {
+                V value = loader.get();
+                fresh.value.complete(value);
+                return value;
+            } catch (RuntimeException e) {
+                entries.remove(key, fresh);
+                fresh.value.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private void removeExpired(long now) {
+        entries.entrySet().removeIf(e -> e.getValue().isExpired(now));
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry<V>(CompletableFuture<V> value, long expiresAt) {
+        boolean isExpired(long now) {
+            return value.isDone() && now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.campus.service;
+
+import com.example.campus.repository.AssignmentSubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Removes stored upload blobs that no submission points at.
+ *
+ * A blob becomes unreferenced when its assignment is deleted, when a
+ * resubmission replaces the file, or when an upload is stored but the
+ * submission is then refused. Blobs are shared by content, so they are never
+ * deleted inline; this sweep checks the store against
+ * {@code assignment_submissions.file_path} in batches instead. Only blobs
+ * untouched for the grace period are considered, which covers the gap
+ * between a file being stored and its submission being saved.
+ */
+@Service
+public class UploadSweepService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadSweepService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private AssignmentSubmissionRepository submissionRepository;
+
+    @Value("${campus.uploads.sweep-grace:24h}")
+    private Duration grace;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    @Scheduled(cron = "${campus.uploads.sweep-cron:0 30 4 * * *}")
+    public void scheduledRun() {
+        try {
+            Map<String, Object> report = sweep();
+            if (!report.isEmpty()) {
+                log.info("Upload sweep: {}", report);
+            }
+        } catch (Exception e) {
+            log.error("Upload sweep failed", e);
+        }
+    }
+
+    /**
+     * Deletes unreferenced blobs and abandoned temp files older than the grace
+     * period. Returns what was checked and removed; an empty map means another
+     * sweep was already running.
+     */
+    public Map<String, Object> sweep() throws IOException {
+        if (!running.tryLock()) {
+            return Map.of();
+        }
+        try {
+            Instant cutoff = Instant.now().minus(grace);
+            List<String> candidates = fileStorageService.blobsModifiedBefore(cutoff);
+            int deleted = 0;
+            for (int from = 0; from < candidates.size(); from += BATCH_SIZE) {
+                List<String> batch = candidates.subList(from, Math.min(from + BATCH_SIZE, candidates.size()));
+                Set<String> referenced = new HashSet<>(submissionRepository.findReferencedFilePaths(batch));
+                for (String path : batch) {
+                    if (!referenced.contains(path) && fileStorageService.deleteIfModifiedBefore(path, cutoff)) {
+                        deleted++;
+                    }
+                }
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("checked", candidates.size());
+            report.put("deleted", deleted);
+            report.put("tempFilesDeleted", fileStorageService.deleteTempFilesModifiedBefore(cutoff));
+            return report;
+        } finally {
+            running.unlock();
+        }
+    }
+}
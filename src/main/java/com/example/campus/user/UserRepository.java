@@ -3,11 +3,24 @@ package com.example.campus.user;
 import java.util.Optional;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.domain.Pageable;
+
 
 public interface UserRepository extends JpaRepository<User, Long> {
 	List<User> findByRole(Role role);
+	long countByRole(Role role);
 	Optional<User> findByUsername(String username);
 	boolean existsByUsername(String username);
-}
 
+	@Query("SELECT u.id FROM User u WHERE u.role = :role AND u.id > :afterId ORDER BY u.id ASC")
+	List<Long> findIdsByRoleAfter(@Param("role") Role role, @Param("afterId") Long afterId, Pageable page);
 
+	// Student accounts whose profile (matched by email = username) is in the department/semester; null matches any
+	@Query("SELECT u.id FROM User u, Student s WHERE s.email = u.username AND u.role = :role " +
+			"AND (:department IS NULL OR s.department = :department) AND (:semester IS NULL OR s.semester = :semester) " +
+			"AND u.id > :afterId ORDER BY u.id ASC")
+	List<Long> findIdsByProfileAfter(@Param("role") Role role, @Param("department") String department,
+									 @Param("semester") String semester, @Param("afterId") Long afterId, Pageable page);
+}
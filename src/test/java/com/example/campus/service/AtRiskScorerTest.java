@@ -0,0 +1,84 @@
+package com.example.campus.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtRiskScorerTest {
+
+    private static final int STUDENTS = 50_000;
+
+    @Test
+    void scoresStrugglingStudentAboveHealthyOne() {
+        AtRiskScorer scorer = new AtRiskScorer(new long[]{10L, 20L});
+
+        scorer.addAttendance(0, 45, 50);
+        scorer.addMarks(0, 3, 240.0, 2, 170.0);
+        scorer.addAssignments(0, 4, 4);
+
+        scorer.addAttendance(1, 20, 50);
+        scorer.addMarks(1, 3, 210.0, 2, 60.0);
+        scorer.addOverdueFees(1, 2, 15000.0);
+        scorer.addAssignments(1, 4, 1);
+
+        double[] scores = scorer.score(ForkJoinPool.commonPool());
+        int[] ranked = AtRiskScorer.rank(scores);
+
+        assertEquals(0.0, scores[0], 1e-9);
+        assertTrue(scores[1] > 50.0, "expected high risk, got " + scores[1]);
+        assertEquals(1, ranked[0]);
+        assertEquals(-40.0, scorer.markTrend(1), 1e-9);
+        assertEquals(3, scorer.missedAssignments(1));
+        assertEquals(1, scorer.indexOf(20L));
+        assertEquals(-1, scorer.indexOf(15L));
+    }
+
+    @Test
+    void benchmarkSyntheticCampus() {
+        AtRiskScorer scorer = syntheticCampus(STUDENTS, 42L);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        double[] sequential;
+        try {
+            sequential = scorer.score(single);
+        } finally {
+            single.shutdown();
+        }
+        double[] parallel = scorer.score(ForkJoinPool.commonPool());
+        int[] ranked = AtRiskScorer.rank(parallel);
+
+        assertArrayEquals(sequential, parallel, 0.0);
+        assertEquals(STUDENTS, ranked.length);
+        for (int r = 1; r < ranked.length; r++) {
+            assertTrue(parallel[ranked[r - 1]] >= parallel[ranked[r]] - 1e-6);
+        }
+    }
+
+    private static AtRiskScorer syntheticCampus(int students, long seed) {
+        Random random = new Random(seed);
+        long[] ids = new long[students];
+        for (int i = 0; i < students; i++) {
+            ids[i] = 1000L + i * 3L;
+        }
+
+        AtRiskScorer scorer = new AtRiskScorer(ids);
+        for (int i = 0; i < students; i++) {
+            int sessions = 60 + random.nextInt(60);
+            double diligence = 0.4 + random.nextDouble() * 0.6;
+            scorer.addAttendance(i, Math.round(sessions * diligence), sessions);
+
+            double older = 30 + random.nextDouble() * 65;
+            double recent = Math.max(0, Math.min(100, older + random.nextGaussian() * 15));
+            scorer.addMarks(i, 4, older * 4, 2, recent * 2);
+
+            if (random.nextInt(10) == 0) {
+                scorer.addOverdueFees(i, 1 + random.nextInt(3), 5000 + random.nextInt(20000));
+            }
+            scorer.addAssignments(i, 12, Math.round(12 * diligence));
+        }
+        return scorer;
+    }
+}
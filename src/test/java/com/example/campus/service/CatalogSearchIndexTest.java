@@ -0,0 +1,162 @@
+package com.example.campus.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSearchIndexTest {
+
+    private static final int TITLES = 200_000;
+    private static final int QUERIES = 2_000;
+
+    @Test
+    void matchesPrefixesTyposAndIsbns() {
+        CatalogSearchIndex index = new CatalogSearchIndex(0.6);
+        index.put(1, "Introduction to Algorithms", "Thomas H. Cormen", "978-0-262-04630-5");
+        index.put(2, "Algorithms", "Robert Sedgewick", "9780321573513");
+        index.put(3, "Clean Code", "Robert C. Martin", "9780132350884");
+        index.put(4, "Operating System Concepts", "Abraham Silberschatz", "9781119800361");
+
+        assertEquals(List.of(2L, 1L), ids(index.search("algorithms", 0, 10)));
+        assertEquals(List.of(2L, 1L), ids(index.search("algor", 0, 10)));      // prefix
+        assertEquals(List.of(2L, 1L), ids(index.search("algoritms", 0, 10)));  // dropped letter
+        assertEquals(List.of(1L), ids(index.search("intro algorithms cormen", 0, 10)));
+        assertEquals(List.of(3L, 2L), ids(index.search("robert", 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("978026204630", 0, 10))); // hyphens dropped from the stored ISBN
+        assertEquals(List.of(4L), ids(index.search("silberschats", 0, 10)));
+        assertTrue(index.search("zzzz", 0, 10).hits().isEmpty());
+
+        CatalogSearchIndex.Page page = index.search("robert", 1, 1);
+        assertEquals(2, page.total());
+        assertEquals(List.of(2L), ids(page));
+
+        index.put(3, "Clean Architecture", "Robert C. Martin", "9780134494166");
+        assertTrue(index.search("clean code", 0, 10).hits().stream().allMatch(h -> h.score() < 1.0));
+        assertEquals(List.of(3L), ids(index.search("clean architecture", 0, 10)));
+        assertTrue(index.remove(2));
+        assertEquals(List.of(1L), ids(index.search("algorithms", 0, 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void concurrentSearchesShareABoundedCounterPool() throws Exception {
+        CatalogSearchIndex index = new CatalogSearchIndex(0.6);
+        for (int i = 0; i < 10_000; i++) {
+            index.put(i, "Volume " + i + " of the collected works", "Author " + (i % 100), "978" + i);
+        }
+        long idle = index.memoryBytes();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            futures.add(pool.submit(() -> ids(index.search("volume 1234", 0, 1))));
+        }
+        for (Future<List<Long>> future : futures) {
+            assertEquals(List.of(1234L), future.get(30, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        // Sixteen searching threads leave at most four counter arrays behind, and they are counted
+        long pooled = index.memoryBytes() - idle;
+        assertTrue(pooled > 0);
+        assertTrue(pooled <= 4 * (16 + 2L * 2 * 10_000), "pooled counters take " + pooled + " bytes");
+    }
+
+    @Test
+    void findsMangledTitlesAmongTwoHundredThousand() {
+        Random random = new Random(42L);
+        List<String> vocabulary = vocabulary(random, 30_000);
+        List<String> surnames = vocabulary(random, 5_000);
+        String[] titles = new String[TITLES];
+
+        CatalogSearchIndex index = new CatalogSearchIndex(0.6);
+        for (int i = 0; i < TITLES; i++) {
+            StringBuilder title = new StringBuilder();
+            int words = 2 + random.nextInt(6);
+            for (int w = 0; w < words; w++) {
+                // Skewed word choice, as real titles reuse common words
+                int rank = (int) Math.min(vocabulary.size() - 1, Math.abs(random.nextGaussian()) * vocabulary.size() / 3);
+                title.append(w > 0 ? " " : "").append(vocabulary.get(rank));
+            }
+            titles[i] = title.toString();
+            String author = capitalise(surnames.get(random.nextInt(surnames.size()))) + ", "
+                    + (char) ('A' + random.nextInt(26)) + ".";
+            String isbn = String.format("978-%d-%04d-%04d-%d", random.nextInt(10), random.nextInt(10_000),
+                    random.nextInt(10_000), random.nextInt(10));
+            index.put(1_000_000L + i, titles[i], author, isbn);
+        }
+
+        int found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            int target = random.nextInt(TITLES);
+            String query = mangle(titles[target], random, i % 3);
+            CatalogSearchIndex.Page page = index.search(query, 0, 20);
+            if (ids(page).contains(1_000_000L + target)) {
+                found++;
+            }
+        }
+
+        assertEquals(TITLES, index.size());
+        assertTrue(found > QUERIES * 0.9, "target in the top 20 for only " + found + " of " + QUERIES + " queries");
+    }
+
+    // 0: exact title, 1: first words plus a prefix of the next, 2: one letter dropped from the longest word
+    private static String mangle(String title, Random random, int kind) {
+        String[] words = title.split(" ");
+        if (kind == 1 && words.length > 1) {
+            int keep = 1 + random.nextInt(words.length - 1);
+            String next = words[keep];
+            return String.join(" ", Arrays.copyOf(words, keep)) + " " + next.substring(0, Math.max(1, next.length() / 2));
+        }
+        if (kind == 2) {
+            int longest = 0;
+            for (int w = 1; w < words.length; w++) {
+                if (words[w].length() > words[longest].length()) {
+                    longest = w;
+                }
+            }
+            String word = words[longest];
+            if (word.length() > 4) {
+                int drop = 1 + random.nextInt(word.length() - 2);
+                words[longest] = word.substring(0, drop) + word.substring(drop + 1);
+            }
+            return String.join(" ", words);
+        }
+        return title;
+    }
+
+    private static List<String> vocabulary(Random random, int size) {
+        String[] syllables = {"al", "an", "ar", "ba", "be", "bi", "ca", "ce", "co", "da", "de", "di", "el", "en", "er",
+                "fa", "fo", "ga", "ge", "go", "ha", "he", "hi", "in", "is", "ka", "la", "le", "li", "lo", "ma", "me",
+                "mi", "mo", "na", "ne", "ni", "no", "or", "pa", "pe", "po", "ra", "re", "ri", "ro", "sa", "se", "si",
+                "so", "ta", "te", "ti", "to", "tu", "un", "va", "ve", "vi", "za"};
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < size) {
+            StringBuilder word = new StringBuilder();
+            int parts = 2 + random.nextInt(3);
+            for (int p = 0; p < parts; p++) {
+                word.append(syllables[random.nextInt(syllables.length)]);
+            }
+            if (random.nextBoolean()) {
+                word.append("nstrx".charAt(random.nextInt(5)));
+            }
+            words.add(word.toString());
+        }
+        return new ArrayList<>(words);
+    }
+
+    private static String capitalise(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static List<Long> ids(CatalogSearchIndex.Page page) {
+        List<Long> ids = new ArrayList<>();
+        for (CatalogSearchIndex.Hit hit : page.hits()) {
+            ids.add(hit.id());
+        }
+        return ids;
+    }
+}
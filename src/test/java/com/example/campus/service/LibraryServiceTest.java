@@ -0,0 +1,160 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.BookCopy;
+import com.example.campus.entity.BookTitle;
+import com.example.campus.entity.Library;
+import com.example.campus.repository.BookCopyRepository;
+import com.example.campus.repository.BookTitleRepository;
+import com.example.campus.repository.LibraryRepository;
+import com.example.campus.user.Role;
+import com.example.campus.user.User;
+import com.example.campus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2JpaTest
+@Import({LibraryService.class, LibrarySearchService.class})
+class LibraryServiceTest {
+
+    private static final int COPIES = 5;
+    private static final int REQUESTS = 200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private BookTitleRepository bookTitleRepository;
+
+    @Autowired
+    private BookCopyRepository bookCopyRepository;
+
+    @Autowired
+    private LibraryRepository libraryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        libraryRepository.deleteAll();
+        bookCopyRepository.deleteAll();
+        bookTitleRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void issueAndReturnMoveOneCopyEach() {
+        User student = student("alice@campus.edu");
+        BookTitle book = libraryService.addCopies("Clean Code", "Robert C. Martin", "9780132350884", 2);
+        assertEquals(2, book.getTotalCopies());
+        assertEquals(2, book.getAvailableCopies());
+
+        LibraryService.IssueResult first = libraryService.issue(student, "9780132350884", null, null, LocalDate.now().plusDays(14));
+        LibraryService.IssueResult second = libraryService.issue(student, "9780132350884", null, null, LocalDate.now().plusDays(14));
+        LibraryService.IssueResult third = libraryService.issue(student, "9780132350884", null, null, LocalDate.now().plusDays(14));
+
+        assertEquals(LibraryService.Outcome.ISSUED, first.outcome());
+        assertEquals(LibraryService.Outcome.ISSUED, second.outcome());
+        assertNotEquals(first.issue().getCopyId(), second.issue().getCopyId());
+        assertEquals(LibraryService.Outcome.UNAVAILABLE, third.outcome());
+        assertEquals(0, available(book));
+
+        assertEquals(LibraryService.Outcome.RETURNED, libraryService.returnIssue(first.issue().getId()));
+        assertEquals(LibraryService.Outcome.ALREADY_RETURNED, libraryService.returnIssue(first.issue().getId()));
+        assertEquals(1, available(book));
+        assertTrue(libraryService.deleteIssue(second.issue().getId()));
+        assertEquals(2, available(book));
+        assertEquals(2, bookCopyRepository.countByBookTitleIdAndStatus(book.getId(), BookCopy.CopyStatus.AVAILABLE));
+
+        // Unknown ISBN: added to the catalogue with one copy when described, refused otherwise
+        assertEquals(LibraryService.Outcome.NOT_FOUND, libraryService.issue(student, "0000000000", null, null, LocalDate.now()).outcome());
+        assertEquals(LibraryService.Outcome.ISSUED,
+                libraryService.issue(student, "9780201633610", "Design Patterns", "Gamma et al.", LocalDate.now()).outcome());
+    }
+
+    @Test
+    void newTitleCountsCopiesStillOutOnLegacyIssues() {
+        User student = student("bob@campus.edu");
+        Library legacy = new Library();
+        legacy.setStudent(student);
+        legacy.setTitle("Refactoring");
+        legacy.setAuthor("Martin Fowler");
+        legacy.setIsbn("9780134757599");
+        legacy.setDueDate(LocalDate.now().plusDays(3));
+        legacy = libraryRepository.save(legacy);
+
+        LibraryService.IssueResult again = libraryService.issue(student("carol@campus.edu"), "9780134757599",
+                "Refactoring", "Martin Fowler", LocalDate.now().plusDays(14));
+        assertEquals(LibraryService.Outcome.UNAVAILABLE, again.outcome());
+        BookTitle book = bookTitleRepository.findByIsbn("9780134757599").orElseThrow();
+        assertEquals(1, book.getTotalCopies());
+        assertEquals(0, book.getAvailableCopies());
+        assertNotNull(libraryRepository.findById(legacy.getId()).orElseThrow().getCopyId());
+
+        assertEquals(LibraryService.Outcome.RETURNED, libraryService.returnIssue(legacy.getId()));
+        assertEquals(1, available(book));
+        assertEquals(LibraryService.Outcome.ISSUED, libraryService.issue(student("dave@campus.edu"), "9780134757599",
+                null, null, LocalDate.now().plusDays(14)).outcome());
+    }
+
+    @Test
+    void concurrentIssuesNeverExceedCopies() throws Exception {
+        BookTitle book = libraryService.addCopies("Introduction to Algorithms", "Cormen et al.", "9780262046305", COPIES);
+        List<User> students = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            students.add(student("student" + i + "@campus.edu"));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<LibraryService.IssueResult>> futures = new ArrayList<>();
+        for (User student : students) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return libraryService.issue(student, "9780262046305", null, null, LocalDate.now().plusDays(7));
+            }));
+        }
+
+        start.countDown();
+        Set<Long> copies = new HashSet<>();
+        int issued = 0;
+        for (Future<LibraryService.IssueResult> future : futures) {
+            LibraryService.IssueResult result = future.get(60, TimeUnit.SECONDS);
+            if (result.outcome() == LibraryService.Outcome.ISSUED) {
+                issued++;
+                copies.add(result.issue().getCopyId());
+            } else {
+                assertEquals(LibraryService.Outcome.UNAVAILABLE, result.outcome());
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(COPIES, issued);
+        assertEquals(COPIES, copies.size());
+        assertEquals(COPIES, libraryRepository.count());
+        assertEquals(0, available(book));
+        assertEquals(COPIES, bookCopyRepository.countByBookTitleIdAndStatus(book.getId(), BookCopy.CopyStatus.ISSUED));
+    }
+
+    private int available(BookTitle book) {
+        return bookTitleRepository.findById(book.getId()).orElseThrow().getAvailableCopies();
+    }
+
+    private User student(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setName(username);
+        user.setPassword("password123");
+        user.setRole(Role.STUDENT);
+        return userRepository.save(user);
+    }
+}
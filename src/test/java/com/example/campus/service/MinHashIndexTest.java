@@ -0,0 +1,91 @@
+package com.example.campus.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashIndexTest {
+
+    private static final int SUBMISSIONS = 10_000;
+    private static final int COPIED_PAIRS = 50;
+    private static final int WORDS = 300;
+    private static final int VOCABULARY = 5_000;
+
+    @Test
+    void estimatesSimilarityOfEditedCopy() {
+        MinHashIndex index = new MinHashIndex();
+        String original = "The French Revolution began in 1789 when the Estates General met at Versailles "
+                + "and the Third Estate declared itself the National Assembly, swearing not to disband "
+                + "until France had a constitution. Rising bread prices and a fiscal crisis fuelled unrest.";
+        index.put(1, original);
+        index.put(2, original.replace("Rising bread prices", "High bread prices").toUpperCase());
+        index.put(3, "Photosynthesis converts light energy into chemical energy stored in glucose, "
+                + "releasing oxygen as a by-product in the chloroplasts of plant cells.");
+        index.put(4, "   ");
+
+        List<MinHashIndex.Pair> pairs = index.pairs(0.5);
+
+        assertEquals(1, pairs.size());
+        assertEquals(1, pairs.get(0).first());
+        assertEquals(2, pairs.get(0).second());
+        assertTrue(pairs.get(0).similarity() > 0.7, "similarity " + pairs.get(0).similarity());
+        assertTrue(index.similarity(1, 3) < 0.1);
+        assertEquals(3, index.size());
+
+        index.put(2, "Completely rewritten in my own words this time around.");
+        assertTrue(index.pairs(0.5).isEmpty());
+    }
+
+    @Test
+    void benchmarkSyntheticClass() {
+        Random random = new Random(42L);
+        List<String> texts = new ArrayList<>(SUBMISSIONS);
+        for (int i = 0; i < SUBMISSIONS - COPIED_PAIRS; i++) {
+            texts.add(randomText(random));
+        }
+        // Each copy swaps about one word in twenty of an existing submission
+        Map<Integer, Integer> planted = new HashMap<>();
+        for (int i = 0; i < COPIED_PAIRS; i++) {
+            int source = random.nextInt(SUBMISSIONS - COPIED_PAIRS);
+            String[] words = texts.get(source).split(" ");
+            for (int w = 0; w < words.length; w++) {
+                if (random.nextInt(20) == 0) {
+                    words[w] = "w" + random.nextInt(VOCABULARY);
+                }
+            }
+            planted.put(texts.size(), source);
+            texts.add(String.join(" ", words));
+        }
+
+        MinHashIndex index = new MinHashIndex();
+        for (int i = 0; i < texts.size(); i++) {
+            index.put(i, texts.get(i));
+        }
+
+        List<MinHashIndex.Pair> pairs = index.pairs(0.5);
+
+        Set<Long> found = new HashSet<>();
+        for (MinHashIndex.Pair pair : pairs) {
+            found.add(pair.first() * SUBMISSIONS + pair.second());
+        }
+        for (Map.Entry<Integer, Integer> copy : planted.entrySet()) {
+            long a = Math.min(copy.getKey(), copy.getValue());
+            long b = Math.max(copy.getKey(), copy.getValue());
+            assertTrue(found.contains(a * SUBMISSIONS + b), "missed copied pair " + a + "/" + b);
+        }
+        assertEquals(COPIED_PAIRS, pairs.size(), "unexpected pairs among unrelated texts");
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < WORDS; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            text.append('w').append(random.nextInt(VOCABULARY));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Notification;
+import com.example.campus.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationFeedCacheTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 8, 0);
+    private static final Notification.TargetRole[] ROLES = {
+            Notification.TargetRole.ALL, Notification.TargetRole.STUDENT,
+            Notification.TargetRole.FACULTY, Notification.TargetRole.ADMIN
+    };
+    private static final long[] USERS = {1L, 2L, 3L, 4L, 5L};
+
+    // Stands in for the notifications table
+    private final Map<Long, Notification> table = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private NotificationFeedCache cache;
+    private NotificationService service;
+    private NotificationRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(NotificationRepository.class);
+        when(repository.save(any())).thenAnswer(inv -> store(inv.getArgument(0)));
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Notification> saved = new ArrayList<>();
+            for (Notification n : inv.<List<Notification>>getArgument(0)) {
+                saved.add(store(n));
+            }
+            return saved;
+        });
+        when(repository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(table.get(inv.<Long>getArgument(0))).map(this::copy));
+        doAnswer(inv -> table.remove(inv.<Notification>getArgument(0).getId())).when(repository).delete(any());
+        when(repository.findBroadcastPage(any(), any(), anyLong(), any())).thenAnswer(inv -> {
+            Notification.TargetRole role = inv.getArgument(0);
+            return page(n -> n.getTargetRole() == role && n.getTargetUserId() == null,
+                    inv.getArgument(1), inv.getArgument(2), inv.getArgument(3));
+        });
+        when(repository.findPersonalPage(any(), anyLong(), any(), anyLong(), any())).thenAnswer(inv -> {
+            Notification.TargetRole role = inv.getArgument(0);
+            Long userId = inv.getArgument(1);
+            return page(n -> n.getTargetRole() == role && userId.equals(n.getTargetUserId()),
+                    inv.getArgument(2), inv.getArgument(3), inv.getArgument(4));
+        });
+
+        cache = new NotificationFeedCache(40, Duration.ofMinutes(10), 1000);
+        ReflectionTestUtils.setField(cache, "notificationRepository", repository);
+        service = new NotificationService();
+        ReflectionTestUtils.setField(service, "notificationRepository", repository);
+        ReflectionTestUtils.setField(service, "feedCache", cache);
+        ReflectionTestUtils.setField(service, "notificationHub", mock(NotificationHub.class));
+        ReflectionTestUtils.setField(service, "readReceiptService", mock(ReadReceiptService.class));
+        ReflectionTestUtils.setField(service, "searchIndexService", mock(SearchIndexService.class));
+    }
+
+    @Test
+    void servesWarmFeedWithoutQueries() {
+        for (int i = 0; i < 10; i++) {
+            service.create(broadcast("notice " + i, ROLES[i % ROLES.length]));
+        }
+        assertFeedMatchesTable(5);
+        clearInvocations(repository);
+
+        for (int i = 0; i < 20; i++) {
+            assertNotNull(cache.read(Notification.TargetRole.STUDENT, 1L, NotificationFeedService.END_OF_TIME, Long.MAX_VALUE, 5));
+        }
+        verify(repository, never()).findBroadcastPage(any(), any(), anyLong(), any());
+        verify(repository, never()).findPersonalPage(any(), anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void updateMovesNotificationBetweenRoles() {
+        Notification saved = service.create(broadcast("exam schedule", Notification.TargetRole.STUDENT));
+        assertEquals(List.of(saved.getId()), ids(latest(Notification.TargetRole.STUDENT, null)));
+        assertTrue(latest(Notification.TargetRole.FACULTY, null).isEmpty());
+
+        service.update(saved.getId(), n -> {
+            n.setTargetRole(Notification.TargetRole.FACULTY);
+            n.setTitle("invigilation duty");
+        });
+
+        assertTrue(latest(Notification.TargetRole.STUDENT, null).isEmpty());
+        List<Notification> faculty = latest(Notification.TargetRole.FACULTY, null);
+        assertEquals(List.of(saved.getId()), ids(faculty));
+        assertEquals("invigilation duty", faculty.get(0).getTitle());
+    }
+
+    @Test
+    void staysConsistentUnderConcurrentEdits() throws Exception {
+        for (int i = 0; i < 60; i++) {
+            service.create(broadcast("seed " + i, ROLES[i % ROLES.length]));
+        }
+        assertFeedMatchesTable(10); // warm every partition
+
+        int writers = 8;
+        int readers = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(writers + readers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            long seed = w;
+            futures.add(pool.submit(() -> {
+                start.await();
+                Random random = new Random(seed);
+                for (int op = 0; op < 400; op++) {
+                    int kind = random.nextInt(10);
+                    Long target = randomId(random);
+                    if (kind < 4 || target == null) {
+                        service.create(broadcast("w" + seed + "-" + op, ROLES[random.nextInt(ROLES.length)]));
+                    } else if (kind < 6) {
+                        Notification personal = broadcast("due " + op, Notification.TargetRole.STUDENT);
+                        personal.setTargetUserId(USERS[random.nextInt(USERS.length)]);
+                        service.createAll(List.of(personal));
+                    } else if (kind < 8) {
+                        Notification.TargetRole role = ROLES[random.nextInt(ROLES.length)];
+                        service.update(target, n -> {
+                            n.setTitle(n.getTitle() + "*");
+                            if (n.getTargetUserId() == null) {
+                                n.setTargetRole(role);
+                            }
+                        });
+                    } else {
+                        service.delete(target);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < readers; r++) {
+            long seed = 100 + r;
+            futures.add(pool.submit(() -> {
+                start.await();
+                Random random = new Random(seed);
+                for (int op = 0; op < 2000; op++) {
+                    List<Notification> feed = cache.read(ROLES[1 + random.nextInt(3)], USERS[random.nextInt(USERS.length)],
+                            NotificationFeedService.END_OF_TIME, Long.MAX_VALUE, 10);
+                    if (feed != null) {
+                        for (int i = 1; i < feed.size(); i++) {
+                            assertTrue(NotificationFeedService.NEWEST_FIRST.compare(feed.get(i - 1), feed.get(i)) < 0);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertFeedMatchesTable(10);
+        assertFeedMatchesTable(40);
+    }
+
+    private void assertFeedMatchesTable(int limit) {
+        for (int r = 1; r < ROLES.length; r++) {
+            Notification.TargetRole role = ROLES[r];
+            for (Long userId : new Long[]{null, 1L, 2L, 3L, 4L, 5L}) {
+                List<Notification> cached = cache.read(role, userId, NotificationFeedService.END_OF_TIME, Long.MAX_VALUE, limit);
+                List<Notification> expected = truth(role, userId, limit);
+                if (cached == null) {
+                    continue; // window too short, the feed service would query instead
+                }
+                assertEquals(ids(expected), ids(cached), role + " / user " + userId);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).getTitle(), cached.get(i).getTitle());
+                }
+            }
+            assertNotNull(cache.read(role, null, NotificationFeedService.END_OF_TIME, Long.MAX_VALUE, Math.min(limit, 5)));
+        }
+    }
+
+    private List<Notification> latest(Notification.TargetRole role, Long userId) {
+        return cache.read(role, userId, NotificationFeedService.END_OF_TIME, Long.MAX_VALUE, 10);
+    }
+
+    private List<Notification> truth(Notification.TargetRole role, Long userId, int limit) {
+        return table.values().stream()
+                .filter(n -> n.getTargetUserId() == null
+                        ? n.getTargetRole() == role || n.getTargetRole() == Notification.TargetRole.ALL
+                        : n.getTargetUserId().equals(userId) && n.getTargetRole() == role)
+                .sorted(NotificationFeedService.NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    private List<Notification> page(Predicate<Notification> filter, LocalDateTime beforeAt, long beforeId, Pageable page) {
+        return table.values().stream()
+                .filter(filter)
+                .filter(n -> n.getCreatedAt().isBefore(beforeAt) || (n.getCreatedAt().equals(beforeAt) && n.getId() < beforeId))
+                .sorted(NotificationFeedService.NEWEST_FIRST)
+                .limit(page.getPageSize())
+                .map(this::copy)
+                .toList();
+    }
+
+    private Long randomId(Random random) {
+        long max = ids.get();
+        return max == 0 ? null : 1 + (long) random.nextInt((int) max);
+    }
+
+    private Notification store(Notification notification) {
+        if (notification.getId() == null) {
+            long id = ids.incrementAndGet();
+            notification.setId(id);
+            // Three rows per second gives plenty of createdAt ties for the id tie-break
+            notification.setCreatedAt(BASE.plusSeconds(id / 3));
+        }
+        table.put(notification.getId(), copy(notification));
+        return copy(notification);
+    }
+
+    private Notification copy(Notification source) {
+        Notification copy = new Notification();
+        copy.setId(source.getId());
+        copy.setTitle(source.getTitle());
+        copy.setMessage(source.getMessage());
+        copy.setCreatedBy(source.getCreatedBy());
+        copy.setTargetRole(source.getTargetRole());
+        copy.setTargetUserId(source.getTargetUserId());
+        copy.setCreatedAt(source.getCreatedAt());
+        return copy;
+    }
+
+    private static Notification broadcast(String title, Notification.TargetRole role) {
+        Notification notification = new Notification();
+        notification.setTitle(title);
+        notification.setMessage(title);
+        notification.setCreatedBy("admin");
+        notification.setTargetRole(role);
+        return notification;
+    }
+
+    private static List<Long> ids(List<Notification> notifications) {
+        return notifications.stream().map(Notification::getId).toList();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Fee;
+import com.example.campus.repository.FeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2JpaTest
+@Import(PaymentPostingService.class)
+class PaymentPostingServiceTest {
+
+    private static final int FEES = 20;
+    private static final int PAYERS = 16;
+
+    @Autowired
+    private PaymentPostingService paymentPostingService;
+
+    @Autowired
+    private FeeRepository feeRepository;
+
+    @MockitoBean
+    private FeeLedgerService feeLedgerService;
+
+    @MockitoBean
+    private AdminStatsService adminStatsService;
+
+    @AfterEach
+    void cleanUp() {
+        feeRepository.deleteAll();
+    }
+
+    @Test
+    void replayOfSameTransactionIsIdempotent() {
+        Fee fee = feeRepository.save(newFee(1L));
+
+        PaymentPostingService.PaymentResult first = paymentPostingService.post(fee.getId(), new BigDecimal("1000.00"),
+                "UPI", "TX-1", null);
+        PaymentPostingService.PaymentResult replay = paymentPostingService.post(fee.getId(), new BigDecimal("1000.00"),
+                "UPI", "TX-1", null);
+        PaymentPostingService.PaymentResult other = paymentPostingService.post(fee.getId(), new BigDecimal("1000.00"),
+                "UPI", "TX-2", null);
+
+        assertEquals(PaymentPostingService.Outcome.POSTED, first.outcome());
+        assertEquals(PaymentPostingService.Outcome.ALREADY_POSTED, replay.outcome());
+        assertEquals(PaymentPostingService.Outcome.REJECTED, other.outcome());
+        assertEquals(1L, feeRepository.findById(fee.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void concurrentPaymentsApplyExactlyOncePerFee() throws Exception {
+        List<Long> feeIds = new ArrayList<>();
+        for (int i = 0; i < FEES; i++) {
+            feeIds.add(feeRepository.save(newFee(100L + i)).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(PAYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<PaymentPostingService.PaymentResult>>> futures = new ArrayList<>();
+        for (int payer = 0; payer < PAYERS; payer++) {
+            int p = payer;
+            futures.add(pool.submit(() -> {
+                start.await();
+                List<PaymentPostingService.PaymentResult> results = new ArrayList<>();
+                for (Long feeId : feeIds) {
+                    results.add(paymentPostingService.post(feeId, new BigDecimal("1000.00"), "CARD",
+                            "TX-" + p + "-" + feeId, null));
+                }
+                return results;
+            }));
+        }
+
+        start.countDown();
+        Map<Long, String> postedBy = new HashMap<>();
+        for (Future<List<PaymentPostingService.PaymentResult>> future : futures) {
+            for (PaymentPostingService.PaymentResult result : future.get(60, TimeUnit.SECONDS)) {
+                if (result.outcome() == PaymentPostingService.Outcome.POSTED) {
+                    String previous = postedBy.put(result.fee().getId(), result.fee().getTransactionId());
+                    assertNull(previous, "fee " + result.fee().getId() + " posted twice");
+                } else {
+                    assertEquals(PaymentPostingService.Outcome.REJECTED, result.outcome());
+                }
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(FEES, postedBy.size());
+        for (Long feeId : feeIds) {
+            Fee fee = feeRepository.findById(feeId).orElseThrow();
+            assertEquals(Fee.PaymentStatus.PAID, fee.getStatus());
+            assertEquals(postedBy.get(feeId), fee.getTransactionId());
+            assertEquals(1L, fee.getVersion());
+        }
+    }
+
+    private static Fee newFee(Long studentId) {
+        Fee fee = new Fee();
+        fee.setStudentId(studentId);
+        fee.setFeeType(Fee.FeeType.TUITION);
+        fee.setAmount(new BigDecimal("1000.00"));
+        fee.setDueDate(LocalDateTime.now().plusDays(30));
+        return fee;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Notification;
+import com.example.campus.repository.NotificationReadMarkRepository;
+import com.example.campus.repository.NotificationReadRepository;
+import com.example.campus.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReadReceiptServiceTest {
+
+    private static final Long STUDENT = 7L;
+
+    private ReadReceiptService service;
+
+    @BeforeEach
+    void setUp() {
+        NotificationRepository notifications = mock(NotificationRepository.class);
+        when(notifications.findBroadcastIdsVisibleTo(Notification.TargetRole.STUDENT)).thenReturn(List.of(1L, 2L, 3L));
+        when(notifications.findPersonalIds(any(), anyLong())).thenReturn(List.of());
+        NotificationReadMarkRepository marks = mock(NotificationReadMarkRepository.class);
+        when(marks.findById(anyLong())).thenReturn(Optional.empty());
+        NotificationReadRepository reads = mock(NotificationReadRepository.class);
+        when(reads.findNotificationIdsByUserId(anyLong())).thenReturn(List.of());
+
+        service = new ReadReceiptService(mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "notificationRepository", notifications);
+        ReflectionTestUtils.setField(service, "markRepository", marks);
+        ReflectionTestUtils.setField(service, "readRepository", reads);
+        ReflectionTestUtils.setField(service, "feedCache", new NotificationFeedCache(40, Duration.ofMinutes(10), 1000));
+    }
+
+    @Test
+    void markUpToBeyondNewestLeavesLaterNotificationsUnread() {
+        assertEquals(3, service.unreadCount(Notification.TargetRole.STUDENT, STUDENT));
+        assertEquals(0, service.markReadUpTo(Notification.TargetRole.STUDENT, STUDENT, 1_000_000L));
+
+        service.onCreated(broadcast(4L));
+        assertEquals(1, service.unreadCount(Notification.TargetRole.STUDENT, STUDENT));
+        assertFalse(service.isRead(Notification.TargetRole.STUDENT, STUDENT, 4L));
+        assertTrue(service.isRead(Notification.TargetRole.STUDENT, STUDENT, 3L));
+    }
+
+    @Test
+    void rejectsNegativeMark() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.markReadUpTo(Notification.TargetRole.STUDENT, STUDENT, -1L));
+        assertEquals(3, service.unreadCount(Notification.TargetRole.STUDENT, STUDENT));
+    }
+
+    private static Notification broadcast(Long id) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setTitle("Notice " + id);
+        notification.setTargetRole(Notification.TargetRole.STUDENT);
+        return notification;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.campus.service;
+
+import com.example.campus.entity.Assignment;
+import com.example.campus.entity.AssignmentSubmission;
+import com.example.campus.repository.AssignmentRepository;
+import com.example.campus.repository.AssignmentSubmissionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2JpaTest
+@Import({SubmissionService.class, PendingReviewCounter.class, SimilarityService.class, RollupEtlService.class})
+class SubmissionServiceTest {
+
+    private static final int STUDENTS = 500;
+    private static final int THREADS = 32;
+    private static final String FACULTY = "faculty@campus.edu";
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private PendingReviewCounter pendingReviewCounter;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private AssignmentSubmissionRepository submissionRepository;
+
+    @AfterEach
+    void cleanUp() {
+        submissionRepository.deleteAll();
+        assignmentRepository.deleteAll();
+        pendingReviewCounter.invalidateAll();
+    }
+
+    @Test
+    void resubmissionUpdatesRowUntilGraded() {
+        Assignment assignment = assignmentRepository.save(newAssignment(LocalDateTime.now().plusDays(1)));
+        assertEquals(0, pendingReviewCounter.pendingFor(FACULTY));
+
+        SubmissionService.SubmitResult first = submissionService.submit(assignment.getId(), 7L, "v1", "/files/v1.pdf");
+        SubmissionService.SubmitResult second = submissionService.submit(assignment.getId(), 7L, "v2", "/files/v2.pdf");
+
+        assertEquals(SubmissionService.Outcome.SUBMITTED, first.outcome());
+        assertEquals(SubmissionService.Outcome.RESUBMITTED, second.outcome());
+        assertEquals(first.submission().getId(), second.submission().getId());
+        assertEquals("/files/v2.pdf", second.submission().getFilePath());
+        assertEquals(AssignmentSubmission.SubmissionStatus.SUBMITTED, second.submission().getStatus());
+        assertEquals(1, pendingReviewCounter.pendingFor(FACULTY));
+
+        AssignmentSubmission graded = second.submission();
+        graded.setStatus(AssignmentSubmission.SubmissionStatus.GRADED);
+        graded.setMarksObtained(40);
+        submissionRepository.save(graded);
+
+        SubmissionService.SubmitResult third = submissionService.submit(assignment.getId(), 7L, "v3", "/files/v3.pdf");
+        assertEquals(SubmissionService.Outcome.ALREADY_GRADED, third.outcome());
+        assertEquals("/files/v2.pdf", submissionRepository.findById(graded.getId()).orElseThrow().getFilePath());
+        assertEquals(1, submissionRepository.count());
+    }
+
+    @Test
+    void submissionAfterDueDateIsLate() {
+        Assignment assignment = assignmentRepository.save(newAssignment(LocalDateTime.now().minusHours(1)));
+
+        SubmissionService.SubmitResult result = submissionService.submit(assignment.getId(), 8L, "late", null);
+
+        assertEquals(AssignmentSubmission.SubmissionStatus.LATE, result.submission().getStatus());
+        assertEquals(SubmissionService.Outcome.NOT_FOUND, submissionService.submit(-1L, 8L, "x", null).outcome());
+    }
+
+    @Test
+    void concurrentSubmissionsToOneAssignmentAllPersist() throws Exception {
+        Long assignmentId = assignmentRepository.save(newAssignment(LocalDateTime.now().plusDays(1))).getId();
+        assertEquals(0, pendingReviewCounter.pendingFor(FACULTY)); // loaded now, then kept up to date in memory
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<SubmissionService.SubmitResult>> futures = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            long studentId = 1000L + i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                return submissionService.submit(assignmentId, studentId, "answer " + studentId, "/files/" + studentId);
+            }));
+        }
+
+        start.countDown();
+        Set<Long> ids = new HashSet<>();
+        for (Future<SubmissionService.SubmitResult> future : futures) {
+            SubmissionService.SubmitResult result = future.get(60, TimeUnit.SECONDS);
+            assertEquals(SubmissionService.Outcome.SUBMITTED, result.outcome());
+            ids.add(result.submission().getId());
+        }
+        pool.shutdown();
+
+        assertEquals(STUDENTS, ids.size());
+        assertEquals(STUDENTS, submissionRepository.findByAssignmentId(assignmentId).size());
+        assertEquals(STUDENTS, pendingReviewCounter.pendingFor(FACULTY));
+    }
+
+    private static Assignment newAssignment(LocalDateTime dueDate) {
+        return new Assignment("Essay", "Write an essay", FACULTY, "English", 50, dueDate);
+    }
+}
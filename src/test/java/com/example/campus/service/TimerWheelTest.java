@@ -0,0 +1,86 @@
+package com.example.campus.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final int DEADLINES = 1_000_000;
+
+    @Test
+    void firesEachTimerAtItsTickAcrossLevels() {
+        long start = 1_000 * MINUTE;
+        TimerWheel<String> wheel = new TimerWheel<>(MINUTE, start);
+        wheel.schedule(start + 5 * MINUTE, "5m");
+        wheel.schedule(start + 3 * 60 * MINUTE, "3h");
+        wheel.schedule(start + 7 * 24 * 60 * MINUTE, "7d");
+        wheel.schedule(start + 400L * 24 * 60 * MINUTE, "400d");
+        wheel.schedule(start - 10 * MINUTE, "past");
+        TimerWheel.Timer<String> cancelled = wheel.schedule(start + 2 * 60 * MINUTE, "cancelled");
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertEquals(5, wheel.size());
+
+        assertEquals(List.of("past"), wheel.advance(start + MINUTE));
+        assertEquals(List.of(), wheel.advance(start + 4 * MINUTE));
+        assertEquals(List.of("5m"), wheel.advance(start + 5 * MINUTE));
+        assertEquals(List.of(), wheel.advance(start + 3 * 60 * MINUTE - MINUTE));
+        assertEquals(List.of("3h"), wheel.advance(start + 3 * 60 * MINUTE));
+        assertEquals(List.of("7d"), wheel.advance(start + 30L * 24 * 60 * MINUTE));
+        assertEquals(List.of(), wheel.advance(start + 400L * 24 * 60 * MINUTE - MINUTE));
+        assertEquals(List.of("400d"), wheel.advance(start + 400L * 24 * 60 * MINUTE));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void timersBeyondTheWheelAreParkedAndStillFireOnTime() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+        long far = (1L << 24) + 12_345; // just past four levels of 64 slots
+        wheel.schedule(far, "far");
+
+        assertEquals(List.of(), wheel.advance(far - 1));
+        assertEquals(List.of("far"), wheel.advance(far));
+    }
+
+    @Test
+    void benchmarkYearOfDeadlines() {
+        Random random = new Random(42L);
+        long start = 29_000_000L * MINUTE;
+        long year = 365L * 24 * 60 * MINUTE;
+        TimerWheel<Long> wheel = new TimerWheel<>(MINUTE, start);
+        long[] deadlines = new long[DEADLINES];
+        for (int i = 0; i < DEADLINES; i++) {
+            deadlines[i] = start + 1 + (long) (random.nextDouble() * year);
+        }
+
+        List<TimerWheel.Timer<Long>> timers = new ArrayList<>(DEADLINES);
+        for (int i = 0; i < DEADLINES; i++) {
+            timers.add(wheel.schedule(deadlines[i], (long) i));
+        }
+
+        int cancelled = 0;
+        for (int i = 0; i < DEADLINES; i += 10) {
+            if (wheel.cancel(timers.get(i))) {
+                cancelled++;
+            }
+        }
+
+        int fired = 0;
+        for (long now = start + MINUTE; now <= start + year + MINUTE; now += 60 * MINUTE) {
+            for (Long id : wheel.advance(now)) {
+                long deadline = deadlines[id.intValue()];
+                assertTrue(deadline <= now && deadline > now - 60 * MINUTE - MINUTE, "fired at the wrong time: " + id);
+                assertNotEquals(0, id % 10, "cancelled timer fired: " + id);
+                fired++;
+            }
+        }
+
+        assertEquals(DEADLINES - cancelled, fired);
+        assertEquals(0, wheel.size());
+    }
+}